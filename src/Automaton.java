@@ -1,46 +1,87 @@
 import java.io.*;
-import java.util.ArrayList;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.zip.Deflater;
 
 public abstract class Automaton {
+    //the amount of steps evolved in words between checks of whether the generation has become sparse
+    private static final int DENSITY_CHECK_INTERVAL = 64;
+    //the amount of cells saveEvolution encodes at a time, which bounds the memory of the text being written
+    private static final long SAVE_BATCH_CELLS = 1L << 24;
+
     private Rule rule;
-    private ArrayList<Generation> generations;
+    //the generations that are kept, every generation by default
+    private GenerationHistory generations;
+    //the generation of step 0, which is always kept so that the start of a cycle can be found again
+    private Generation initial;
     char falseSymbol;
     char trueSymbol;
+    //whether generations are evolved with the Vector API kernel when it is available
+    private boolean vectorized;
+    //evolves wide generations in parallel tiles, null to evolve every generation on the calling thread
+    private TiledEvolver tiledEvolver;
+    //jumps to generations far past the stored ones, null to evolve one generation at a time
+    private HashLifeEngine hashLife;
+    //whether the generations are parts of an infinite line of background cells rather than circular rows
+    private boolean unbounded;
+    //the states of the cells past either end of a circular row
+    private Boundary boundary = Boundary.PERIODIC;
+    //the level that .gz files are compressed at, see Deflater
+    private int compressionLevel = Deflater.BEST_SPEED;
+    //whether sparse generations are run-length encoded and evolved with RunKernel
+    private boolean runLength = true;
+    //the amount of steps evolved in words since the density was last checked
+    private int denseSteps;
+    //the amount of times the automaton has evolved, which keeps growing after a cycle stops generations being stored
+    private int totalSteps;
+    //whether new generations are checked for a repeat of an earlier one
+    private boolean cycleDetection = true;
+    //Brent's cycle detection, the tortoise is compared to every new generation and jumps ahead at powers of two
+    private Generation tortoise;
+    private int tortoiseStep;
+    private int power = 1;
+    //the first step of the cycle and its length, -1 until a cycle is found
+    private int transientLength = -1;
+    private int period = -1;
 
     protected Automaton(int ruleNum, Generation initial) throws RuleNumException {
         this.rule = createRule(ruleNum);
-        generations = new ArrayList<>();
+        generations = GenerationHistory.keepAll();
         generations.add(initial);
+        this.initial = initial;
+        tortoise = initial;
         trueSymbol = '1';
         falseSymbol = '0';
     }
 
+    /**
+     * Initializes an automaton from an input file: the rule number on the first line, the false and the true
+     * symbol separated by a space on the second line and the initial generation on the third line, see InputFile.
+     *
+     * @param fileName The file to read.
+     * @throws UncheckedIOException     If the file cannot be read.
+     * @throws IllegalArgumentException If the file does not follow the format or its rule number is not valid.
+     */
     protected Automaton(String fileName) {
-        //create empty string which will be used to pass the cell states
-        String initialCellStates = "";
+        InputFile input = InputFile.read(fileName);
         try {
-            //create buffered reader to read the file
-            BufferedReader reader = new BufferedReader(new FileReader(fileName));
-
-            //initialize rule global variable with the next line
-            rule = createRule(Integer.parseInt(reader.readLine().trim()));
-            //get the line value for the true/false symbols
-            String valueSymbols = reader.readLine();
-            //split the valueSymbols string, strip it of any spaces, and then get its character value
-            String[] splitStrings = valueSymbols.split(" ");
-            falseSymbol = splitStrings[0].charAt(0);
-            trueSymbol = splitStrings[1].trim().charAt(0);
-            //get the cellStates from the next line
-            initialCellStates = reader.readLine();
-        } catch (IOException | RuleNumException ignored) {
+            rule = createRule(input.getRuleNum());
+        } catch (RuleNumException e) {
+            throw new IllegalArgumentException(fileName + ": " + e.getMessage(), e);
         }
-
-        //initialize new generation
-        Generation initialGeneration = new Generation(initialCellStates, trueSymbol);
+        falseSymbol = input.getFalseSymbol();
+        trueSymbol = input.getTrueSymbol();
 
         //add the initial generation
-        generations = new ArrayList<>();
+        Generation initialGeneration = input.getInitial();
+        generations = GenerationHistory.keepAll();
         generations.add(initialGeneration);
+        initial = initialGeneration;
+        tortoise = initialGeneration;
     }
 
     protected abstract Rule createRule(int ruleNum) throws RuleNumException;
@@ -49,6 +90,89 @@ public abstract class Automaton {
         return rule.getRuleNum();
     }
 
+    //the rule of the automaton, for engines that evolve automata outside of evolve(int)
+    Rule getRule() {
+        return rule;
+    }
+
+    //whether the automaton evolves on an infinite line, which only evolve(int) supports
+    boolean isUnbounded() {
+        return unbounded;
+    }
+
+    //the boundary condition of the automaton, engines other than evolve(int) only support PERIODIC
+    Boundary getBoundary() {
+        return boundary;
+    }
+
+    //appends a generation that an engine has evolved from the last one
+    void addGeneration(Generation generation) {
+        totalSteps++;
+        //once the automaton is known to cycle, the generation is already stored at an earlier step
+        if (!cycleKept()) {
+            generations.add(generation);
+            if (cycleDetection && period < 0) {
+                detectCycle(generation);
+            }
+        }
+    }
+
+    //whether a cycle is found and a whole period of it is kept, so that every later step can be mapped onto it
+    private boolean cycleKept() {
+        return period > 0 && generations.getFirstStep() <= generations.getLastStep() - period + 1;
+    }
+
+    //compares the newest generation to the tortoise, see Brent's algorithm
+    private void detectCycle(Generation generation) {
+        int distance = totalSteps - tortoiseStep;
+        if (generation.equals(tortoise)) {
+            period = distance;
+            //the cycle starts at the first step whose generation equals the one a period later
+            transientLength = 0;
+            if (generations.getFirstStep() == 0) {
+                while (!generations.get(transientLength).equals(generations.get(transientLength + period))) {
+                    transientLength++;
+                }
+            } else {
+                //the early generations are gone, so evolve them again from the initial generation
+                Generation start = initial;
+                Generation end = initial;
+                for (int i = 0; i < period; i++) {
+                    end = step(end);
+                }
+                while (!start.equals(end)) {
+                    start = step(start);
+                    end = step(end);
+                    transientLength++;
+                }
+            }
+        } else if (distance == power) {
+            tortoise = generation;
+            tortoiseStep = totalSteps;
+            power *= 2;
+        }
+    }
+
+    //gets the generation of a kept step, steps of the cycle that are not stored are mapped onto the kept period
+    private Generation generationAt(long stepNum) {
+        int last = generations.getLastStep();
+        if (stepNum > last || (stepNum < generations.getFirstStep() && stepNum >= transientLength)) {
+            if (cycleKept()) {
+                return generations.get((int) (last - Math.floorMod(last - stepNum, (long) period)));
+            }
+        }
+        //throws for steps that are no longer kept
+        return generations.get((int) stepNum);
+    }
+
+    //the oldest step whose generation can still be returned
+    private int firstKeptStep() {
+        if (cycleKept()) {
+            return Math.min(generations.getFirstStep(), transientLength);
+        }
+        return generations.getFirstStep();
+    }
+
     /**
      * Evolves the current generation the amount of steps specified further.
      *
@@ -63,14 +187,55 @@ public abstract class Automaton {
 
         //get the last generation, evolve it, add it to the arrayList of generations. For loop for how many times to do this, given numSteps
         for (int i = 0; i < numSteps; i++) {
-            Generation lastGeneration = generations.get(generations.size() - 1);
-            generations.add(rule.evolve(lastGeneration));
+            //once a cycle is found every later generation is already stored, so only the step count moves on
+            if (cycleKept()) {
+                totalSteps = Math.addExact(totalSteps, numSteps - i);
+                return;
+            }
+            Generation lastGeneration = generations.get(generations.getLastStep());
+            addGeneration(step(lastGeneration));
         }
 
     }
 
+    //evolves a single generation with the kernel chosen for this automaton
+    private Generation step(Generation generation) {
+        if (!unbounded) {
+            return circularStep(generation, boundary);
+        }
+
+        //the cells within the radius of the generation can change, the ones past them read only background cells
+        //and become the rule's output for an all background neighborhood
+        int radius = rule.getRadius();
+        Generation wide = generation.widen(radius);
+        boolean background = rule.evolve(generation.getBackground() ? (1 << (2 * radius + 1)) - 1 : 0);
+        //evolving the wider row circularly is exact, since the cells past either end are background as well
+        return circularStep(wide, Boundary.PERIODIC).placed(wide.getOffset(), background).trim();
+    }
+
+    //evolves a generation with the kernel chosen for this automaton, run-length encoded rows need a circular row
+    private Generation circularStep(Generation generation, Boundary boundary) {
+        if (runLength && boundary == Boundary.PERIODIC) {
+            if (generation.isRunLength()) {
+                return RunKernel.evolve(rule, generation);
+            }
+            //counting the toggles costs about as much as a step, so the density is only checked now and then
+            if (++denseSteps == DENSITY_CHECK_INTERVAL) {
+                denseSteps = 0;
+                if (RunKernel.isSparse(generation)) {
+                    return RunKernel.evolve(rule, generation.toRunLength());
+                }
+            }
+        }
+        if (tiledEvolver != null) {
+            return tiledEvolver.evolve(rule, generation, vectorized, boundary);
+        }
+        return vectorized ? VectorEngine.evolve(rule, generation, boundary) : rule.evolve(generation, boundary);
+    }
+
     /**
      * Gets the generation of the specific step number, if it does not exist, then evolve the generation until it is reached.
+     * Steps that the history set with setHistory no longer keeps cause an IllegalStateException.
      *
      * @param stepNum The step number that should be used to get that generation.
      * @return Returns the generation from the given step.
@@ -78,12 +243,36 @@ public abstract class Automaton {
     //gets the generation of the specific stepNum
     public Generation getGeneration(int stepNum) {
         //checks if the generation has reached stepNum value generations, if not, evolve to that number
-        if (stepNum > generations.size() - 1) {
+        if (stepNum > totalSteps) {
             evolve(stepNum - getTotalSteps());
         }
 
         //return the generation that was requested
-        return generations.get(stepNum);
+        return generationAt(stepNum);
+    }
+
+    /**
+     * Gets the generation of a step number that may be far beyond what can be stored. Steps up to getTotalSteps()
+     * come from the stored generations, and once a cycle has been found every later step is mapped onto it. When a
+     * HashLife engine is set with setHashLife, later steps are computed by jumping ahead from the last stored
+     * generation and are not stored, so that even astronomically large step numbers can be reached; otherwise this
+     * works like getGeneration(int).
+     *
+     * @param stepNum The step number that should be used to get that generation.
+     * @return Returns the generation from the given step.
+     */
+    public Generation getGeneration(long stepNum) {
+        if (stepNum <= getTotalSteps() || cycleKept()) {
+            return generationAt(stepNum);
+        }
+        if (hashLife == null || unbounded || boundary != Boundary.PERIODIC) {
+            if (stepNum > Integer.MAX_VALUE - 1) {
+                throw new IllegalArgumentException("step " + stepNum + " can only be reached with setHashLife");
+            }
+            return getGeneration((int) stepNum);
+        }
+
+        return hashLife.evolve(generations.get(generations.getLastStep()), stepNum - getTotalSteps());
     }
 
     /**
@@ -93,11 +282,102 @@ public abstract class Automaton {
      */
     //get the total amount of times the eca has evolved
     public int getTotalSteps() {
-        return generations.size() - 1;
+        return totalSteps;
+    }
+
+    /**
+     * Gets the amount of steps before the automaton entered its cycle. Every generation from this step on repeats
+     * getPeriod() steps later.
+     *
+     * @return Returns the first step of the cycle, or -1 if no cycle has been found yet.
+     */
+    public int getTransientLength() {
+        return transientLength;
+    }
+
+    /**
+     * Gets the length of the cycle the automaton ended up in. A finite circular row always ends up in a cycle,
+     * which is found at the latest a few periods after it is entered.
+     *
+     * @return Returns the length of the cycle, or -1 if no cycle has been found yet.
+     */
+    public int getPeriod() {
+        return period;
+    }
+
+    /**
+     * Chooses whether new generations are checked for a repeat of an earlier one, which is on by default. Once a
+     * cycle is found, evolving only counts the steps and getGeneration answers from the stored generations, so
+     * no more generations are evolved or stored. Checking costs a comparison of one generation per step.
+     *
+     * @param cycleDetection True to look for a cycle, false to evolve and store every generation.
+     */
+    public void setCycleDetection(boolean cycleDetection) {
+        this.cycleDetection = cycleDetection;
+        //restart the search from the latest generation, the generations evolved in between were not compared
+        tortoise = generations.get(generations.getLastStep());
+        tortoiseStep = generations.getLastStep();
+        power = 1;
+    }
+
+    /**
+     * Chooses which generations are kept, see GenerationHistory. Keeping only the latest generations lets an
+     * automaton evolve for any amount of steps in constant memory. The generations that are currently kept are
+     * moved to the new history as far as it keeps them, and getTotalSteps() is not affected.
+     *
+     * @param history An empty history that is only used by this automaton.
+     */
+    public void setHistory(GenerationHistory history) {
+        if (history.getLastStep() != -1) {
+            throw new IllegalArgumentException("the history must be empty");
+        }
+
+        //as many steps as are stored, ending at the current step, which a kept cycle can map onto the stored ones
+        int from = Math.max(firstKeptStep(), totalSteps - (generations.getLastStep() - generations.getFirstStep()));
+        history.startAt(from);
+        history.attach(this::step);
+        history.attach(this, generationAt(from));
+        for (int step = from; step <= totalSteps; step++) {
+            history.add(generationAt(step));
+        }
+        generations = history;
+    }
+
+    /**
+     * Makes an automaton from the steps in a file written by GenerationHistory.mapped. The automaton has the type,
+     * rule and boundary recorded in the file and keeps its steps in the history, so it continues evolving from the
+     * last row and appends the new steps to the file. Cycles are only looked for when the file starts at step 0,
+     * since the start of a cycle is found again from the initial generation.
+     *
+     * @param history The history opened with MappedHistory.open, which must not be set on another automaton.
+     * @return Returns the automaton at the last step of the file.
+     * @throws RuleNumException         If the rule number in the file is not valid for the type of automaton.
+     * @throws IllegalArgumentException If the file holds a type of automaton that cannot be made.
+     */
+    public static Automaton fromHistory(MappedHistory history) throws RuleNumException {
+        Generation first = history.get(history.getFirstStep());
+        Automaton automaton;
+        switch (history.getType()) {
+            case "ElementaryAutomaton":
+                automaton = new ElementaryAutomaton(history.getRuleNum(), first);
+                break;
+            case "TotalisticAutomaton":
+                automaton = new TotalisticAutomaton(history.getRuleNum(), first);
+                break;
+            default:
+                throw new IllegalArgumentException("cannot make an automaton of type " + history.getType());
+        }
+
+        automaton.boundary = history.getBoundary();
+        automaton.generations = history;
+        automaton.totalSteps = history.getLastStep();
+        automaton.setCycleDetection(history.getFirstStep() == 0);
+        return automaton;
     }
 
     /**
      * Converts the elementary cellular automaton into a visual representation using true and false symbols.
+     * Only the steps that are still kept are included.
      *
      * @return A string that is representative of the elementary cellular automaton.
      */
@@ -109,22 +389,48 @@ public abstract class Automaton {
         //used to check if the for loop is on the first line
         boolean first = true;
 
-        //enhanced for loop which loops through each generation
-        for (Generation generation : generations) {
+        long[] span = alignment();
+        long left = span[0];
+        long right = span[1];
+
+        //single byte symbols are encoded eight cells at a time, with the rows split among the threads of the pool
+        TextEncoder encoder = TextEncoder.of(falseSymbol, trueSymbol);
+        if (encoder != null) {
+            int firstStep = firstKeptStep();
+            Generation[] rows = new Generation[totalSteps - firstStep + 1];
+            for (int step = firstStep; step <= totalSteps; step++) {
+                rows[step - firstStep] = generationAt(step);
+            }
+            byte[] separator = System.lineSeparator().getBytes(StandardCharsets.ISO_8859_1);
+            byte[] text = encoder.encodeRows(rows, 0, rows.length, left, right, separator, false,
+                    ForkJoinPool.commonPool());
+            return new String(text, StandardCharsets.ISO_8859_1);
+        }
+
+        //loops through each step, the generations of steps past a cycle are stored at an earlier step
+        for (int step = firstKeptStep(); step <= totalSteps; step++) {
+            Generation generation = generationAt(step);
             //checks if first is true, if not, do not add a lineSeparator, if false, add one
             if (first) {
                 first = false;
             } else {
                 stringBuilder.append(System.lineSeparator());
             }
-            //for each generation, get the states, append it to the string with its respective singular true/false value
-            for (boolean b : generation.getStates()) {
-                if (b) {
+            //for each generation, read the states in place, append it to the string with its respective singular true/false value
+            char backgroundSymbol = generation.getBackground() ? trueSymbol : falseSymbol;
+            for (long x = left; x < generation.getOffset(); x++) {
+                stringBuilder.append(backgroundSymbol);
+            }
+            for (int i = 0; i < generation.size(); i++) {
+                if (generation.getState(i)) {
                     stringBuilder.append(trueSymbol);
                 } else {
                     stringBuilder.append(falseSymbol);
                 }
             }
+            for (long x = (long) generation.getOffset() + generation.size(); x < right; x++) {
+                stringBuilder.append(backgroundSymbol);
+            }
         }
 
         //return the string builder as a string
@@ -132,24 +438,323 @@ public abstract class Automaton {
 
     }
 
+    //the part of the line that the rows cover, generations of an unbounded automaton are aligned on the part of the
+    //line that any of them covers, and the rows of a circular row are just its cells
+    private long[] alignment() {
+        long left = 0;
+        long right = 0;
+        if (unbounded) {
+            left = Long.MAX_VALUE;
+            right = Long.MIN_VALUE;
+            for (int step = firstKeptStep(); step <= totalSteps; step++) {
+                Generation generation = generationAt(step);
+                left = Math.min(left, generation.getOffset());
+                right = Math.max(right, (long) generation.getOffset() + generation.size());
+            }
+        }
+        return new long[]{left, right};
+    }
+
     /**
-     * Saves the elementary cellular automaton to a file.
+     * Saves the elementary cellular automaton to a file, in the same format as toString. The kept steps are
+     * handed to the writer in batches of rows of up to 16M cells together, see SAVE_BATCH_CELLS, and a batch is
+     * encoded in parallel and written in order before the next one is started. At most the encoded text of one
+     * batch is held at a time, about 16 MB for single byte symbols, or of a single row if a row alone is wider
+     * than a batch, so the whole evolution is never held in memory.
+     * Files whose name ends in .gz are compressed with GZIP at the level set with setCompressionLevel.
      *
      * @param filename The filename that the file is saved as.
+     * @return Returns the amount of rows and bytes written, the size of the file and how long it took.
+     * @throws UncheckedIOException If the file cannot be written.
      */
+    //save the evolution to a file
+    public TransferStats saveEvolution(String filename) {
+        long[] span = alignment();
+        Path path = Paths.get(filename);
+        try (EvolutionWriter writer = openWriter(path)) {
+            //the rows are handed over in batches of up to SAVE_BATCH_CELLS cells, which the writer encodes in parallel
+            Generation[] batch = new Generation[16];
+            int count = 0;
+            long cells = 0;
+            for (int step = firstKeptStep(); step <= totalSteps; step++) {
+                Generation generation = generationAt(step);
+                long length = TextEncoder.rowLength(generation, span[0], span[1]);
+                //a row too wide for the batch goes on its own, which the writer streams through its buffer
+                if (count > 0 && cells + length > SAVE_BATCH_CELLS) {
+                    writer.writeRows(batch, count, span[0], span[1]);
+                    Arrays.fill(batch, 0, count, null);
+                    count = 0;
+                    cells = 0;
+                }
+                if (count == batch.length) {
+                    batch = Arrays.copyOf(batch, count * 2);
+                }
+                batch[count++] = generation;
+                cells += length;
+            }
+            writer.writeRows(batch, count, span[0], span[1]);
+            return writer.finish().withFileBytes(Files.size(path));
+        } catch (IOException e) {
+            throw new UncheckedIOException("could not save the evolution to " + filename, e);
+        }
+    }
 
+    /**
+     * Evolves the current generation the amount of steps specified further while saving to a file, in the same
+     * format as saveEvolution. The kept steps are written first, and then every new generation as soon as it is
+     * evolved, so together with a history such as GenerationHistory.keepCurrent an evolution far larger than the
+     * memory can be saved. The rows of an unbounded automaton are aligned on every step, which is not known until
+     * the last one is evolved, so those have to be saved with saveEvolution.
+     *
+     * @param numSteps The amount of steps to evolve the generation.
+     * @param filename The filename that the file is saved as.
+     * @return Returns the amount of rows and bytes written, the size of the file and how long it took, including
+     * the evolving.
+     * @throws UncheckedIOException If the file cannot be written.
+     */
+    public TransferStats evolveAndSave(int numSteps, String filename) {
+        if (unbounded) {
+            throw new IllegalStateException("the rows of an unbounded automaton can only be saved with saveEvolution");
+        }
+        Path path = Paths.get(filename);
+        try (EvolutionWriter writer = openWriter(path)) {
+            for (int step = firstKeptStep(); step <= totalSteps; step++) {
+                writer.writeRow(generationAt(step), 0, 0);
+            }
+            for (int i = 0; i < numSteps; i++) {
+                evolve(1);
+                writer.writeRow(generationAt(totalSteps), 0, 0);
+            }
+            return writer.finish().withFileBytes(Files.size(path));
+        } catch (IOException e) {
+            throw new UncheckedIOException("could not save the evolution to " + filename, e);
+        }
+    }
 
-    //save the evolution to a file
-    public void saveEvolution(String filename) {
-        try {
-            BufferedWriter writer = new BufferedWriter(new FileWriter(filename));
-            writer.write(toString());
-            writer.close();
+    private EvolutionWriter openWriter(Path path) throws IOException {
+        return new EvolutionWriter(CompressedFiles.openOutput(path, compressionLevel),
+                EvolutionWriter.DEFAULT_BUFFER_SIZE, falseSymbol, trueSymbol);
+    }
+
+    /**
+     * Renders the kept steps as an image with true cells black and false cells white, one step per row, see
+     * DiagramRenderer. The format is chosen by the extension of the file: .pbm for a bitmap, .pgm for shades of
+     * gray and .png for either, compressed at the level set with setCompressionLevel. The cells are read from the
+     * words of the generations one step at a time, so only a single row of the image is ever held in memory.
+     * The rows of an unbounded automaton are aligned like in toString.
+     *
+     * @param filename The filename that the image is saved as.
+     * @param scale    The amount of cells along each side of the block of cells a pixel stands for, 1 for a pixel
+     *                 per cell. The shade of a pixel is the share of true cells in its block.
+     * @return Returns the amount of steps and the bytes of the image before compression, the size of the file and
+     * how long it took.
+     * @throws UncheckedIOException     If the file cannot be written.
+     * @throws IllegalArgumentException If the extension is not one of the formats or scale is not positive.
+     */
+    public TransferStats renderEvolution(String filename, int scale) {
+        if (scale < 1) {
+            throw new IllegalArgumentException("scale must be positive");
+        }
+        Path path = Paths.get(filename);
+        DiagramRenderer.Format format = DiagramRenderer.Format.of(path);
+        long[] span = alignment();
+        int width = unbounded ? Math.toIntExact(span[1] - span[0]) : generationAt(totalSteps).size();
+        int first = firstKeptStep();
+
+        //the stream is a resource of its own, so it is closed even when the renderer cannot be made
+        try (OutputStream out = new BufferedOutputStream(Files.newOutputStream(path), CompressedFiles.BUFFER_SIZE);
+             DiagramRenderer renderer = new DiagramRenderer(out, format, width, totalSteps - first + 1, scale,
+                     compressionLevel)) {
+            for (int step = first; step <= totalSteps; step++) {
+                renderer.addRow(generationAt(step).aligned(span[0], width));
+            }
+            return renderer.finish().withFileBytes(Files.size(path));
+        } catch (IOException e) {
+            throw new UncheckedIOException("could not render the evolution to " + filename, e);
+        }
+    }
+
+    /**
+     * Replaces the generations with the rows of a file saved by saveEvolution, keeping them in a new keepAll
+     * history, see loadEvolution(String, GenerationHistory).
+     *
+     * @param filename The file to read.
+     * @return Returns the amount of rows and bytes read, the size of the file and how long it took.
+     * @throws UncheckedIOException     If the file cannot be read.
+     * @throws IllegalArgumentException If the file does not hold rows of this automaton's symbols.
+     */
+    public TransferStats loadEvolution(String filename) {
+        return loadEvolution(filename, GenerationHistory.keepAll());
+    }
+
+    /**
+     * Replaces the generations with the rows of a file saved by saveEvolution, read with this automaton's true and
+     * false symbols. The first row becomes step 0 and the last row the current step, from which the automaton
+     * continues evolving. The rows are read one at a time and added to the given history, so a history that does
+     * not keep every step, such as GenerationHistory.keepCurrent, loads an evolution far larger than the memory.
+     * Files whose name ends in .gz are decompressed while they are read. The rows of an unbounded automaton are
+     * aligned on a background that the file does not record, so those cannot be loaded. The generations are only
+     * replaced once the whole file is read, so a file that cannot be loaded leaves the automaton as it was.
+     *
+     * @param filename The file to read.
+     * @param history  An empty history that is only used by this automaton.
+     * @return Returns the amount of rows and bytes read, the size of the file and how long it took.
+     * @throws UncheckedIOException     If the file cannot be read.
+     * @throws IllegalArgumentException If the file does not hold rows of this automaton's symbols, or if its rows
+     *                                  differ in width.
+     */
+    public TransferStats loadEvolution(String filename, GenerationHistory history) {
+        if (unbounded) {
+            throw new IllegalStateException("the rows of an unbounded automaton cannot be loaded");
+        }
+        if (history.getLastStep() != -1) {
+            throw new IllegalArgumentException("the history must be empty");
+        }
+
+        Path path = Paths.get(filename);
+        try (EvolutionReader reader = new EvolutionReader(CompressedFiles.openInput(path),
+                CompressedFiles.BUFFER_SIZE, falseSymbol, trueSymbol)) {
+            Generation first = reader.next();
+            if (first == null) {
+                throw new IllegalArgumentException(filename + " does not hold any rows");
+            }
 
-        } catch (IOException ignored) {
+            //the rows go into the new history while the automaton keeps its own, so a bad row leaves it as it was
+            history.startAt(0);
+            history.attach(this::step);
+            history.attach(this, first);
+            history.add(first);
+            int steps = 0;
+            for (Generation row = reader.next(); row != null; row = reader.next()) {
+                if (row.size() != first.size()) {
+                    throw new IllegalArgumentException(filename + ": row " + (steps + 1) + " has "
+                            + row.size() + " cells instead of " + first.size());
+                }
+                history.add(row);
+                steps++;
+            }
 
+            //start over from the first row, as if the automaton had been made with it
+            initial = first;
+            totalSteps = steps;
+            period = -1;
+            transientLength = -1;
+            denseSteps = 0;
+            generations = history;
+            //the rows were not compared while they were read, so look for a cycle from the last one
+            setCycleDetection(cycleDetection);
+            return reader.getStats().withFileBytes(Files.size(path));
+        } catch (IOException e) {
+            throw new UncheckedIOException("could not load the evolution from " + filename, e);
         }
+    }
+
+    /**
+     * Chooses how hard files whose name ends in .gz are compressed by saveEvolution and evolveAndSave. Higher
+     * levels make smaller files but take longer, and the TransferStats of a save show the ratio and speed of the
+     * level that was used. PNG images from renderEvolution are compressed at the same level. The level is 1 by
+     * default, since the rows of chaotic rules take the higher levels many times longer for a file that is only a
+     * little smaller.
+     *
+     * @param level From 0 for no compression to 9 for the best compression, or -1 for the default level of GZIP.
+     */
+    public void setCompressionLevel(int level) {
+        CompressedFiles.checkLevel(level);
+        compressionLevel = level;
+    }
 
+    /**
+     * Chooses whether generations are evolved with the Vector API kernel of VectorEngine. When the kernel is not
+     * available or does not support the rule, the rule's own kernel is used either way.
+     *
+     * @param vectorized True to use the vectorized kernel, false to use the rule's kernel.
+     */
+    public void setVectorized(boolean vectorized) {
+        this.vectorized = vectorized;
+    }
+
+    /**
+     * Evolves wide generations in parallel by splitting them into tiles, see TiledEvolver. The generations are
+     * bit-identical to the ones evolved on the calling thread.
+     *
+     * @param pool      The pool that runs the tiles, or null to evolve every generation on the calling thread.
+     * @param tileSize  The amount of cells evolved by a single task.
+     * @param threshold Generations with fewer cells than this are evolved on the calling thread.
+     */
+    public void setParallel(ForkJoinPool pool, int tileSize, int threshold) {
+        tiledEvolver = pool == null ? null : new TiledEvolver(pool, tileSize, threshold);
+    }
+
+    /**
+     * Chooses whether the automaton evolves on an infinite line instead of a circular row. The initial generation is
+     * then the part of the line starting at position 0, and every other cell of the line is false. Every generation
+     * only stores the cells from the first to the last one that differ from the background, so memory and time grow
+     * with the pattern rather than with a fixed width. Rules that turn an all false neighborhood true make the whole
+     * background true, see Generation.getBackground. The generations are aligned by their offsets in toString.
+     * HashLife jumps are not used on an infinite line.
+     *
+     * @param unbounded True to evolve on an infinite line, false to evolve the circular row (the default).
+     */
+    public void setUnbounded(boolean unbounded) {
+        if (totalSteps != 0) {
+            throw new IllegalStateException("the lattice can only be chosen before the automaton evolves");
+        }
+        this.unbounded = unbounded;
+    }
+
+    /**
+     * Chooses the states of the cells past either end of the row, see Boundary. Every kernel, including the
+     * vectorized and the parallel ones, pads the generation with the same halo cells. HashLife jumps and
+     * run-length encoded generations are only used with PERIODIC, the default. An unbounded automaton has
+     * no ends, so it ignores the boundary. The boundary can only be chosen before the automaton evolves, since the
+     * kept steps, a found cycle and the histories that evolve steps again all follow the boundary they were made
+     * with.
+     *
+     * @param boundary The boundary condition of the row.
+     * @throws IllegalStateException If the automaton has already evolved.
+     */
+    public void setBoundary(Boundary boundary) {
+        if (boundary == null) {
+            throw new IllegalArgumentException("boundary cannot be null");
+        }
+        if (totalSteps != 0) {
+            throw new IllegalStateException("the boundary can only be chosen before the automaton evolves");
+        }
+        this.boundary = boundary;
+    }
+
+    /**
+     * Chooses whether sparse generations, such as a single true cell in a wide row, are run-length encoded and
+     * evolved with RunKernel, which only evaluates the cells near a change of state. Generations switch between
+     * the two representations by density, and either way the states are the same. On by default.
+     *
+     * @param runLength True to evolve sparse generations as runs, false to always evolve them in words.
+     */
+    public void setRunLength(boolean runLength) {
+        this.runLength = runLength;
+    }
+
+    /**
+     * Lets getGeneration(long) jump to far away steps with a HashLife engine, see HashLifeEngine. The limit on the
+     * engine's cache is checked between its jumps of a power of two steps, so a single jump can grow the cache
+     * past it.
+     *
+     * @param maxNodes The amount of nodes above which the engine's cache is cleared before its next jump, or 0 to
+     *                 remove the engine.
+     */
+    public void setHashLife(int maxNodes) {
+        hashLife = maxNodes <= 0 ? null : new HashLifeEngine(rule, maxNodes);
+    }
+
+    /**
+     * Gets how much smaller the generations are stored than full copies of every generation, see
+     * GenerationHistory.getCompressionRatio. Above 1 only for histories such as GenerationHistory.deltas that
+     * store generations in less space.
+     *
+     * @return Returns the compression ratio of the history.
+     */
+    public double getCompressionRatio() {
+        return generations.getCompressionRatio();
     }
 
     public String getRuleTable() {
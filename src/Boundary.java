@@ -0,0 +1,49 @@
+/**
+ * The states of the cells just past either end of a generation, which the cells at the ends read as neighbors.
+ * The kernels never check for the ends: the halo cells are filled in once per step by Generation.paddedWords, so
+ * every boundary costs the same and the inner loops have no branches.
+ *
+ * @author Cole Hoffman
+ * @version 0.1
+ */
+public enum Boundary {
+    /**
+     * The row is circular, the cells past the last cell are the first cells and the other way around.
+     */
+    PERIODIC,
+    /**
+     * Every cell past either end is false.
+     */
+    FIXED_FALSE,
+    /**
+     * Every cell past either end is true.
+     */
+    FIXED_TRUE,
+    /**
+     * The row is mirrored at both ends, the cell i cells before the first cell being cell i - 1.
+     */
+    REFLECTING;
+
+    /**
+     * Gets the state of a cell outside a generation.
+     *
+     * @param gen The generation.
+     * @param idx The index of the cell, before 0 or at least gen.size().
+     * @return Returns the state of the halo cell.
+     */
+    boolean haloState(Generation gen, int idx) {
+        int size = gen.size();
+        switch (this) {
+            case FIXED_FALSE:
+                return false;
+            case FIXED_TRUE:
+                return true;
+            case REFLECTING:
+                //mirroring at both ends repeats every 2 * size cells, which also covers rows shorter than the halo
+                int mirrored = Math.floorMod(idx, 2 * size);
+                return gen.getState(mirrored < size ? mirrored : 2 * size - 1 - mirrored);
+            default:
+                return gen.getState(Math.floorMod(idx, size));
+        }
+    }
+}
@@ -0,0 +1,132 @@
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.UnaryOperator;
+
+/**
+ * A history that keeps every step without storing every generation. Only every interval-th generation is stored as
+ * a checkpoint, along with the latest generation, and any other step is evolved again from the checkpoint before
+ * it. The generations evolved on the way are kept in a small least recently used cache, so reading the steps in
+ * order evolves each segment only once.
+ * <p>
+ * Memory is about one generation per interval steps plus the cache, and reading a step costs up to interval - 1
+ * evolutions, so the interval trades memory for time.
+ *
+ * @author Cole Hoffman
+ * @version 0.1
+ */
+class CheckpointedHistory extends GenerationHistory {
+    private final int interval;
+    private final int cacheSize;
+    //checkpoints.get(i) is the generation of step getFirstStep() + i * interval
+    private final ArrayList<Generation> checkpoints = new ArrayList<>();
+    //the recently evolved generations by step, in order of use
+    private final LinkedHashMap<Integer, Generation> cache;
+    private Generation latest;
+    //the words of every step at full size and the words of the checkpoints
+    private long fullWords;
+    private long storedWords;
+    //evolves a generation one step, set by the automaton that uses the history
+    private UnaryOperator<Generation> evolver;
+
+    /**
+     * Initializes a checkpointed history.
+     *
+     * @param interval  The amount of steps between checkpoints, at least 1.
+     * @param cacheSize The amount of evolved generations that are cached, 0 for no cache.
+     */
+    CheckpointedHistory(int interval, int cacheSize) {
+        if (interval < 1) {
+            throw new IllegalArgumentException("interval must be positive");
+        }
+        if (cacheSize < 0) {
+            throw new IllegalArgumentException("cacheSize cannot be negative");
+        }
+
+        this.interval = interval;
+        this.cacheSize = cacheSize;
+        cache = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Integer, Generation> eldest) {
+                return size() > CheckpointedHistory.this.cacheSize;
+            }
+        };
+    }
+
+    /**
+     * Gets the amount of steps between checkpoints.
+     *
+     * @return Returns the interval.
+     */
+    int getInterval() {
+        return interval;
+    }
+
+    /**
+     * Gets the amount of evolved generations that are cached.
+     *
+     * @return Returns the size of the cache.
+     */
+    int getCacheSize() {
+        return cacheSize;
+    }
+
+    @Override
+    void attach(UnaryOperator<Generation> evolver) {
+        this.evolver = evolver;
+    }
+
+    @Override
+    public double getCompressionRatio() {
+        return storedWords == 0 ? 1 : (double) fullWords / storedWords;
+    }
+
+    @Override
+    void store(int step, Generation generation) {
+        int count = Generation.wordCount(generation.size());
+        if ((step - getFirstStep()) % interval == 0) {
+            checkpoints.add(generation);
+            storedWords += count;
+        }
+        fullWords += count;
+        latest = generation;
+    }
+
+    @Override
+    Generation load(int step) {
+        if (step == getLastStep()) {
+            return latest;
+        }
+        int offset = (step - getFirstStep()) % interval;
+        Generation checkpoint = checkpoints.get((step - getFirstStep()) / interval);
+        if (offset == 0) {
+            return checkpoint;
+        }
+        Generation cached = cache.get(step);
+        if (cached != null) {
+            return cached;
+        }
+        if (evolver == null) {
+            throw new IllegalStateException("step " + step + " can only be evolved again by an automaton");
+        }
+
+        //evolve again from the closest cached step after the checkpoint, caching the generations on the way
+        Generation generation = checkpoint;
+        int from = step - offset;
+        for (int s = step - 1; s > step - offset; s--) {
+            Generation earlier = cache.get(s);
+            if (earlier != null) {
+                generation = earlier;
+                from = s;
+                break;
+            }
+        }
+        for (int s = from + 1; s <= step; s++) {
+            generation = evolver.apply(generation);
+            if (cacheSize > 0) {
+                cache.put(s, generation);
+            }
+        }
+        return generation;
+    }
+}
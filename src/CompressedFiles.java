@@ -0,0 +1,101 @@
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Locale;
+import java.util.zip.Deflater;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Opens the files that evolutions are saved to and read from. Files whose name ends in .gz are compressed with
+ * GZIP while they are streamed, so neither side ever holds more than a buffer of the uncompressed text, and any
+ * other file is read or written as it is.
+ *
+ * @author Cole Hoffman
+ * @version 0.1
+ */
+final class CompressedFiles {
+    //the amount of bytes the streams of compressed files buffer
+    static final int BUFFER_SIZE = 1 << 16;
+
+    private CompressedFiles() {
+    }
+
+    /**
+     * Checks if a file is compressed, which is chosen by its extension.
+     *
+     * @param path The file.
+     * @return Returns true if the name of the file ends in .gz.
+     */
+    static boolean isCompressed(Path path) {
+        return path.getFileName().toString().toLowerCase(Locale.ROOT).endsWith(".gz");
+    }
+
+    /**
+     * Checks if a compression level can be given to a Deflater.
+     *
+     * @param level The level, from Deflater.NO_COMPRESSION to Deflater.BEST_COMPRESSION or
+     *              Deflater.DEFAULT_COMPRESSION.
+     */
+    static void checkLevel(int level) {
+        if (level != Deflater.DEFAULT_COMPRESSION
+                && (level < Deflater.NO_COMPRESSION || level > Deflater.BEST_COMPRESSION)) {
+            throw new IllegalArgumentException("level must be between 0 and 9, or -1 for the default");
+        }
+    }
+
+    /**
+     * Opens a file for writing, replacing it if it exists.
+     *
+     * @param path  The file.
+     * @param level The compression level used if the file is compressed.
+     * @return Returns a channel that writes the uncompressed bytes.
+     * @throws IOException If the file cannot be created.
+     */
+    static WritableByteChannel openOutput(Path path, int level) throws IOException {
+        if (!isCompressed(path)) {
+            return FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING,
+                    StandardOpenOption.WRITE);
+        }
+
+        OutputStream file = Files.newOutputStream(path);
+        try {
+            return Channels.newChannel(new GZIPOutputStream(file, BUFFER_SIZE) {
+                {
+                    def.setLevel(level);
+                }
+            });
+        } catch (IOException e) {
+            file.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Opens a file for reading.
+     *
+     * @param path The file.
+     * @return Returns a channel that reads the uncompressed bytes.
+     * @throws IOException If the file cannot be read or does not start with a GZIP header.
+     */
+    static ReadableByteChannel openInput(Path path) throws IOException {
+        if (!isCompressed(path)) {
+            return FileChannel.open(path);
+        }
+
+        InputStream file = Files.newInputStream(path);
+        try {
+            return Channels.newChannel(new GZIPInputStream(file, BUFFER_SIZE));
+        } catch (IOException e) {
+            file.close();
+            throw e;
+        }
+    }
+}
@@ -0,0 +1,157 @@
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+
+/**
+ * A history that keeps every step as the difference to the step before it. Every interval-th generation is kept
+ * whole as a keyframe, and every other step only stores the words that changed, as the XOR of its words with the
+ * words of the step before. The changed words are run-length encoded: each run of changed words is a header
+ * holding the index of its first word and its length, followed by the XOR words themselves. Rows that barely
+ * change from one step to the next therefore take up a few words per step instead of a full copy.
+ * <p>
+ * Reading a step applies the deltas since its keyframe. The last step that was read is remembered, so reading the
+ * steps in order applies every delta once. Generations of an unbounded automaton can change their size and offset
+ * from one step to the next, and such a step is kept whole like a keyframe.
+ *
+ * @author Cole Hoffman
+ * @version 0.1
+ */
+class DeltaHistory extends GenerationHistory {
+    private static final long[] NO_CHANGES = new long[0];
+
+    private final int interval;
+    //keyframes.get(i) is the generation of step getFirstStep() + i * interval
+    private final ArrayList<Generation> keyframes = new ArrayList<>();
+    //deltas.get(i) holds the runs of changed words from step getFirstStep() + i - 1 to step getFirstStep() + i
+    private final ArrayList<long[]> deltas = new ArrayList<>();
+    //the steps between keyframes whose size, offset or background differ from the step before, kept whole
+    private final HashMap<Integer, Generation> reshaped = new HashMap<>();
+    private Generation latest;
+    //the words of the last step that was read, so that reading the next step only applies one delta
+    private long[] readWords;
+    private Generation readShape;
+    private int readStep = -1;
+    //the words of every step at full size and the words that are actually stored
+    private long fullWords;
+    private long storedWords;
+
+    /**
+     * Initializes a delta history.
+     *
+     * @param interval The amount of steps between keyframes, at least 1.
+     */
+    DeltaHistory(int interval) {
+        if (interval < 1) {
+            throw new IllegalArgumentException("interval must be positive");
+        }
+        this.interval = interval;
+    }
+
+    @Override
+    public double getCompressionRatio() {
+        return storedWords == 0 ? 1 : (double) fullWords / storedWords;
+    }
+
+    @Override
+    void store(int step, Generation generation) {
+        int count = Generation.wordCount(generation.size());
+        if ((step - getFirstStep()) % interval == 0) {
+            keyframes.add(generation);
+            deltas.add(NO_CHANGES);
+            storedWords += count;
+        } else if (!sameShape(latest, generation)) {
+            reshaped.put(step, generation);
+            deltas.add(NO_CHANGES);
+            storedWords += count;
+        } else {
+            long[] delta = encode(latest.words(), generation.words(), count);
+            deltas.add(delta);
+            storedWords += delta.length;
+        }
+
+        fullWords += count;
+        latest = generation;
+    }
+
+    @Override
+    Generation load(int step) {
+        if (step == getLastStep()) {
+            return latest;
+        }
+        int offset = (step - getFirstStep()) % interval;
+        Generation keyframe = keyframes.get((step - getFirstStep()) / interval);
+        if (offset == 0) {
+            return keyframe;
+        }
+        if (reshaped.containsKey(step)) {
+            return reshaped.get(step);
+        }
+
+        //continue from the last step read when it is between the keyframe and the step
+        int from = step - offset;
+        if (readStep > from && readStep <= step) {
+            from = readStep;
+        } else {
+            readWords = Arrays.copyOf(keyframe.words(), keyframe.words().length);
+            readShape = keyframe;
+        }
+        for (int s = from + 1; s <= step; s++) {
+            Generation whole = reshaped.get(s);
+            if (whole != null) {
+                readWords = Arrays.copyOf(whole.words(), whole.words().length);
+                readShape = whole;
+            } else {
+                decode(deltas.get(s - getFirstStep()), readWords);
+            }
+        }
+        readStep = step;
+
+        return Generation.fromWords(Arrays.copyOf(readWords, readWords.length), readShape.size())
+                .placed(readShape.getOffset(), readShape.getBackground());
+    }
+
+    //whether the words of two generations line up, so that one can be stored as a delta to the other
+    private static boolean sameShape(Generation a, Generation b) {
+        return a.size() == b.size() && a.getOffset() == b.getOffset() && a.getBackground() == b.getBackground();
+    }
+
+    //encodes the runs of words that differ between two generations
+    private static long[] encode(long[] previous, long[] current, int count) {
+        long[] runs = new long[16];
+        int length = 0;
+
+        int k = 0;
+        while (k < count) {
+            if (previous[k] == current[k]) {
+                k++;
+                continue;
+            }
+            int start = k;
+            while (k < count && previous[k] != current[k]) {
+                k++;
+            }
+
+            if (length + 1 + k - start > runs.length) {
+                runs = Arrays.copyOf(runs, Math.max(runs.length * 2, length + 1 + k - start));
+            }
+            runs[length++] = (long) start << 32 | (k - start);
+            for (int i = start; i < k; i++) {
+                runs[length++] = previous[i] ^ current[i];
+            }
+        }
+
+        return length == 0 ? NO_CHANGES : Arrays.copyOf(runs, length);
+    }
+
+    //applies the runs of a delta to the words of the step before it
+    private static void decode(long[] runs, long[] words) {
+        int i = 0;
+        while (i < runs.length) {
+            int start = (int) (runs[i] >>> 32);
+            int length = (int) runs[i++];
+            for (int k = 0; k < length; k++) {
+                words[start + k] ^= runs[i++];
+            }
+        }
+    }
+}
@@ -0,0 +1,309 @@
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+
+/**
+ * Renders a space-time diagram as an image, one generation at a time, with true cells black and false cells white.
+ * Every pixel can stand for a scale x scale block of cells, whose shade is the share of true cells in it, so only
+ * one row of block sums is ever held and a diagram of any size is rendered in the memory of a single row.
+ * <p>
+ * PBM images have one bit per pixel, so a block is black when at least half of its cells are true, PGM images have
+ * 256 shades of gray, and PNG images have one bit per pixel at scale 1 and 256 shades of gray otherwise. The PNG
+ * encoder deflates the rows as they arrive, since javax.imageio needs the whole image in memory first.
+ *
+ * @author Cole Hoffman
+ * @version 0.1
+ */
+final class DiagramRenderer implements Closeable {
+    private static final byte[] PNG_SIGNATURE = {(byte) 0x89, 'P', 'N', 'G', '\r', '\n', 0x1a, '\n'};
+    //the largest IDAT chunk written
+    private static final int CHUNK_SIZE = 1 << 16;
+
+    /**
+     * The image formats, chosen by the extension of the file.
+     */
+    enum Format {
+        PBM, PGM, PNG;
+
+        /**
+         * Gets the format of a file from its extension.
+         *
+         * @param path The file.
+         * @return Returns the format.
+         * @throws IllegalArgumentException If the extension is not .pbm, .pgm or .png.
+         */
+        static Format of(Path path) {
+            String name = path.getFileName().toString().toLowerCase(Locale.ROOT);
+            for (Format format : values()) {
+                if (name.endsWith("." + format.name().toLowerCase(Locale.ROOT))) {
+                    return format;
+                }
+            }
+            throw new IllegalArgumentException(path + " is not a .pbm, .pgm or .png file");
+        }
+    }
+
+    private final OutputStream out;
+    //where the pixels go, the deflater of the IDAT chunks for PNG images
+    private final OutputStream pixels;
+    private final Deflater deflater;
+    private final Format format;
+    private final int width;
+    private final int height;
+    private final int scale;
+    private final int imageWidth;
+    //whether a pixel is a single bit, black for 1 in PBM images and for 0 in PNG images
+    private final boolean bitmap;
+    //the true cells of every block of the current row of blocks
+    private final int[] sums;
+    //the pixels of a row, after the filter byte of PNG rows
+    private final byte[] line;
+    private final int lineStart;
+    private final long start = System.nanoTime();
+    private int rows;
+    private long written;
+
+    /**
+     * Initializes a renderer and writes the header of the image.
+     *
+     * @param out    The stream to write to, which is closed with the renderer.
+     * @param format The image format.
+     * @param width  The amount of cells of every generation.
+     * @param height The amount of generations.
+     * @param scale  The amount of cells along each side of the block that a pixel stands for, at least 1.
+     * @param level  The compression level of PNG images, see Deflater.
+     * @throws IOException If the stream cannot be written to.
+     */
+    DiagramRenderer(OutputStream out, Format format, int width, int height, int scale, int level)
+            throws IOException {
+        if (width < 1 || height < 1) {
+            throw new IllegalArgumentException("the diagram must have at least one cell");
+        }
+        if (scale < 1) {
+            throw new IllegalArgumentException("scale must be positive");
+        }
+        this.out = out;
+        this.format = format;
+        this.width = width;
+        this.height = height;
+        this.scale = scale;
+        imageWidth = (width - 1) / scale + 1;
+        int imageHeight = (height - 1) / scale + 1;
+        bitmap = format == Format.PBM || (format == Format.PNG && scale == 1);
+        sums = new int[imageWidth];
+
+        lineStart = format == Format.PNG ? 1 : 0;
+        long lineBytes = lineStart + (bitmap ? (imageWidth + 7L) / 8 : imageWidth);
+        if (lineBytes > Integer.MAX_VALUE - 8) {
+            throw new IllegalArgumentException("the rows of the image are too wide");
+        }
+        line = new byte[(int) lineBytes];
+
+        switch (format) {
+            case PBM:
+                header("P4\n" + imageWidth + " " + imageHeight + "\n");
+                deflater = null;
+                pixels = out;
+                break;
+            case PGM:
+                header("P5\n" + imageWidth + " " + imageHeight + "\n255\n");
+                deflater = null;
+                pixels = out;
+                break;
+            default:
+                out.write(PNG_SIGNATURE);
+                byte[] ihdr = new byte[13];
+                putInt(ihdr, 0, imageWidth);
+                putInt(ihdr, 4, imageHeight);
+                //bit depth, grayscale, deflate, no filters between rows and no interlacing
+                ihdr[8] = (byte) (bitmap ? 1 : 8);
+                chunk(out, "IHDR", ihdr, ihdr.length);
+                written += PNG_SIGNATURE.length + 12 + ihdr.length;
+                deflater = new Deflater(level);
+                pixels = new DeflaterOutputStream(new IdatStream(out), deflater, CHUNK_SIZE);
+                break;
+        }
+    }
+
+    /**
+     * Adds the next generation of the diagram.
+     *
+     * @param generation The generation, with as many cells as the diagram is wide.
+     * @throws IOException If the stream cannot be written to.
+     */
+    void addRow(Generation generation) throws IOException {
+        if (generation.size() != width) {
+            throw new IllegalArgumentException("every generation must have " + width + " cells");
+        }
+        if (rows == height) {
+            throw new IllegalStateException("the diagram already has " + height + " rows");
+        }
+        rows++;
+
+        if (scale == 1) {
+            writeCells(generation.words());
+            return;
+        }
+        for (int b = 0; b < imageWidth; b++) {
+            sums[b] += generation.countSetCells(b * scale, (int) Math.min(width, (b + 1L) * scale));
+        }
+        if (rows % scale == 0 || rows == height) {
+            writeBlocks(rows % scale == 0 ? scale : rows % scale);
+        }
+    }
+
+    /**
+     * Writes the end of the image.
+     *
+     * @return Returns the amount of generations, the bytes of the image before compression and the time since the
+     * renderer was created.
+     * @throws IOException           If the stream cannot be written to.
+     * @throws IllegalStateException If fewer generations were added than the diagram is high.
+     */
+    TransferStats finish() throws IOException {
+        if (rows != height) {
+            throw new IllegalStateException("the diagram has " + rows + " of its " + height + " rows");
+        }
+        if (format == Format.PNG) {
+            //finishing the deflater leaves the last deflated pixels in the IDAT buffer until it is flushed
+            ((DeflaterOutputStream) pixels).finish();
+            pixels.flush();
+            chunk(out, "IEND", new byte[0], 0);
+            written += 12;
+        }
+        close();
+        return new TransferStats(rows, written, System.nanoTime() - start);
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (deflater != null) {
+            deflater.end();
+        }
+        out.close();
+    }
+
+    //writes a row of single cells straight from the words
+    private void writeCells(long[] words) throws IOException {
+        if (bitmap) {
+            //reversing a word puts cell 0 in the highest bit, which is the first pixel of a byte
+            int bytes = line.length - lineStart;
+            long flip = format == Format.PNG ? -1L : 0;
+            for (int i = 0; i < bytes; i++) {
+                line[lineStart + i] = (byte) ((Long.reverse(words[i >>> 3]) ^ flip) >>> (56 - 8 * (i & 7)));
+            }
+        } else {
+            for (int i = 0; i < width; i++) {
+                line[lineStart + i] = (byte) ((words[i >>> 6] >>> i & 1) == 1 ? 0 : 255);
+            }
+        }
+        writeLine();
+    }
+
+    //writes a row of blocks, which are blockRows high, and starts the next one
+    private void writeBlocks(int blockRows) throws IOException {
+        if (bitmap) {
+            Arrays.fill(line, lineStart, line.length, (byte) 0);
+        }
+        for (int b = 0; b < imageWidth; b++) {
+            int cells = ((int) Math.min(width, (b + 1L) * scale) - b * scale) * blockRows;
+            if (bitmap) {
+                //PBM is the only bitmap that is scaled
+                if (2 * sums[b] >= cells) {
+                    line[lineStart + (b >>> 3)] |= (byte) (0x80 >>> (b & 7));
+                }
+            } else {
+                line[lineStart + b] = (byte) (255 - (255 * sums[b] + cells / 2) / cells);
+            }
+            sums[b] = 0;
+        }
+        writeLine();
+    }
+
+    private void writeLine() throws IOException {
+        pixels.write(line);
+        written += line.length;
+    }
+
+    private void header(String header) throws IOException {
+        byte[] bytes = header.getBytes(StandardCharsets.US_ASCII);
+        out.write(bytes);
+        written += bytes.length;
+    }
+
+    //writes a PNG chunk, its length, type, data and the CRC of the type and data
+    private void chunk(OutputStream out, String type, byte[] data, int length) throws IOException {
+        byte[] typeBytes = type.getBytes(StandardCharsets.US_ASCII);
+        CRC32 crc = new CRC32();
+        crc.update(typeBytes);
+        crc.update(data, 0, length);
+
+        byte[] number = new byte[4];
+        putInt(number, 0, length);
+        out.write(number);
+        out.write(typeBytes);
+        out.write(data, 0, length);
+        putInt(number, 0, (int) crc.getValue());
+        out.write(number);
+    }
+
+    private static void putInt(byte[] bytes, int pos, int value) {
+        bytes[pos] = (byte) (value >>> 24);
+        bytes[pos + 1] = (byte) (value >>> 16);
+        bytes[pos + 2] = (byte) (value >>> 8);
+        bytes[pos + 3] = (byte) value;
+    }
+
+    //collects the deflated pixels into IDAT chunks of at most CHUNK_SIZE bytes
+    private final class IdatStream extends OutputStream {
+        private final OutputStream out;
+        private final byte[] buffer = new byte[CHUNK_SIZE];
+        private int count;
+
+        IdatStream(OutputStream out) {
+            this.out = out;
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            if (count == buffer.length) {
+                flushChunk();
+            }
+            buffer[count++] = (byte) b;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            while (len > 0) {
+                if (count == buffer.length) {
+                    flushChunk();
+                }
+                int n = Math.min(len, buffer.length - count);
+                System.arraycopy(b, off, buffer, count, n);
+                count += n;
+                off += n;
+                len -= n;
+            }
+        }
+
+        @Override
+        public void flush() throws IOException {
+            flushChunk();
+            out.flush();
+        }
+
+        private void flushChunk() throws IOException {
+            if (count > 0) {
+                chunk(out, "IDAT", buffer, count);
+                count = 0;
+            }
+        }
+    }
+}
@@ -1,12 +1,7 @@
-import java.util.Arrays;
-import java.util.HashMap;
-
 public class ElementaryRule extends Rule {
-    private char[] binaryChar;
     private final boolean[] ruleStates = new boolean[8];
-    private final HashMap<String, Boolean> binaryValues = new HashMap<>();
-    private static final int TRUE = 1;
-    private static final int FALSE = 0;
+    //one mask per neighborhood code 0 ("000") to 7 ("111"), all ones if the rule maps it to true
+    private final long[] minterms = new long[8];
 
 
     protected ElementaryRule(int ruleNum) throws RuleNumException {
@@ -14,79 +9,71 @@ public class ElementaryRule extends Rule {
         if(getRuleNum() > 255 || getRuleNum() < 0) throw new RuleNumException(0, 255);
         else {
             fillRuleStates();
-            fillHashmap();
+            fillMinterms();
         }
     }
 
-    private void fillRuleStates() {
-        //padding code courtesy of Tina Nguyen.
-        binaryChar = String.format("%08d", Integer.parseInt(Integer.toBinaryString(getRuleNum()))).toCharArray();
-
-        for (int i = 0; i < binaryChar.length; i++) {
-            if (binaryChar[i] == '1') ruleStates[i] = true;
-            else ruleStates[i] = false;
+    @Override
+    protected boolean[] compileTable() {
+        boolean[] table = new boolean[8];
+        for (int code = 0; code < table.length; code++) {
+            //bit i of the rule number is the next state of the neighborhood with code i
+            table[code] = (getRuleNum() >>> code & 1) == 1;
         }
+        return table;
     }
 
-    private void fillHashmap() {
-        binaryValues.put("111", ruleStates[0]);
-        binaryValues.put("110", ruleStates[1]);
-        binaryValues.put("101", ruleStates[2]);
-        binaryValues.put("100", ruleStates[3]);
-        binaryValues.put("011", ruleStates[4]);
-        binaryValues.put("010", ruleStates[5]);
-        binaryValues.put("001", ruleStates[6]);
-        binaryValues.put("000", ruleStates[7]);
+    private void fillRuleStates() {
+        //the rule table lists the neighborhoods from 111 down to 000
+        boolean[] table = getTable();
+        for (int i = 0; i < ruleStates.length; i++) {
+            ruleStates[i] = table[7 - i];
+        }
     }
 
-
-    @Override
-    public boolean evolve(boolean[] neighborhood) {
-        //create a new stringBuilder object which we will use with the hashmap to get the correct next value
-        StringBuilder intNeighborhood = new StringBuilder();
-
-        //enhanced for loop checks if true, then adds 1 to the string, if false, then adds a 0
-        for (boolean b : neighborhood) {
-            if (b) {
-                intNeighborhood.append(TRUE);
-            } else {
-                intNeighborhood.append(FALSE);
-            }
+    private void fillMinterms() {
+        boolean[] table = getTable();
+        for (int i = 0; i < minterms.length; i++) {
+            if (table[i]) minterms[i] = -1L;
         }
+    }
 
-        //uses the value of intNeighborhood to get the corresponding true/false value from the hashmap
-        return binaryValues.get(intNeighborhood.toString());
+    //the minterm masks, shared with the vectorized kernel
+    long[] minterms() {
+        return minterms;
     }
 
+    /**
+     * Evolves a range of words of a padded generation 64 cells at a time. Each word of the generation is shifted
+     * against its neighbors so that bit i of the left, center and right words holds the neighborhood of cell i,
+     * and the rule's minterms are then applied to all 64 neighborhoods with bitwise operations.
+     *
+     * @param padded The words of the generation with one halo word on each side, see Generation.paddedWords.
+     * @param next   The array that receives the evolved words.
+     * @param from   The first word to evolve, inclusive.
+     * @param to     The last word to evolve, exclusive.
+     */
     @Override
-    public boolean[] getNeighborhood(int idx, Generation gen) {
-        //gets the boolean values of the given generation to check against the index
-        boolean[] generationBooleans = gen.getStates();
-
-        //creates a new boolean array which will store the neighbors of the index and the index itself
-        boolean[] neighbors = new boolean[3];
-
-        if (generationBooleans.length == 1) {
-            //if the array only has one value, the only neighbors it has are itself.
-            Arrays.fill(neighbors, generationBooleans[0]);
-        } else if (idx == 0) {
-            //if the index is 0, the left neighbor is the last index
-            neighbors[0] = generationBooleans[generationBooleans.length - 1];
-            neighbors[1] = generationBooleans[idx];
-            neighbors[2] = generationBooleans[idx + 1];
-        } else if (idx == generationBooleans.length - 1) {
-            //if the index is the last index, the right neighbor is the first index
-            neighbors[0] = generationBooleans[idx - 1];
-            neighbors[1] = generationBooleans[idx];
-            neighbors[2] = generationBooleans[0];
-        } else {
-            //fill in the neighborhood properly with its left neighbor, the index, then the right neighbor values
-            neighbors[0] = generationBooleans[idx - 1];
-            neighbors[1] = generationBooleans[idx];
-            neighbors[2] = generationBooleans[idx + 1];
+    void evolveWords(long[] padded, long[] next, int from, int to) {
+        for (int k = from; k < to; k++) {
+            long center = padded[k + 1];
+            //bit i of left holds cell i - 1, bit i of right holds cell i + 1, the halo words fill in the edges
+            long left = (center << 1) | (padded[k] >>> 63);
+            long right = (center >>> 1) | (padded[k + 2] << 63);
+
+            //sum of the minterms, factored on the right cell, then the center cell, then the left cell
+            long c11 = mux(right, minterms[7], minterms[6]);
+            long c10 = mux(right, minterms[5], minterms[4]);
+            long c01 = mux(right, minterms[3], minterms[2]);
+            long c00 = mux(right, minterms[1], minterms[0]);
+            next[k] = mux(left, mux(center, c11, c10), mux(center, c01, c00));
         }
+    }
 
-        return neighbors;
+    @Override
+    public boolean evolve(boolean[] neighborhood) {
+        //uses the code of the neighborhood to look up the next state in the compiled table
+        return evolve(encode(neighborhood));
     }
 
     @Override
@@ -0,0 +1,159 @@
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.charset.Charset;
+import java.nio.charset.CharsetDecoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.CodingErrorAction;
+import java.util.Arrays;
+
+/**
+ * Reads generations back from a channel written by EvolutionWriter, one row at a time. The channel is read in
+ * fixed size chunks and every row is packed into words as it is decoded, so only the row being read is ever held
+ * in memory. A line separator after the last row is allowed, but every other line must be a row of false and true
+ * symbols.
+ *
+ * @author Cole Hoffman
+ * @version 0.1
+ */
+final class EvolutionReader implements Closeable {
+    private final ReadableByteChannel channel;
+    private final CharsetDecoder decoder;
+    private final ByteBuffer bytes;
+    private final CharBuffer chars;
+    private final char falseSymbol;
+    private final char trueSymbol;
+    private final long start = System.nanoTime();
+    //whether the channel has ended and every byte of it is decoded
+    private boolean drained;
+    private boolean end;
+    //whether the last char was a carriage return, so a line feed right after it does not end another row
+    private boolean afterReturn;
+    //the row being read, sized like the row before it
+    private long[] words = new long[1];
+    private int size;
+    private long rows;
+    private long read;
+
+    /**
+     * Initializes a reader that decodes the rows in the default charset, like a FileReader.
+     *
+     * @param channel     The channel to read from, which is closed with the reader.
+     * @param bufferSize  The amount of bytes read at a time.
+     * @param falseSymbol The symbol of false cells.
+     * @param trueSymbol  The symbol of true cells.
+     */
+    EvolutionReader(ReadableByteChannel channel, int bufferSize, char falseSymbol, char trueSymbol) {
+        this.channel = channel;
+        this.falseSymbol = falseSymbol;
+        this.trueSymbol = trueSymbol;
+        decoder = Charset.defaultCharset().newDecoder()
+                .onMalformedInput(CodingErrorAction.REPORT)
+                .onUnmappableCharacter(CodingErrorAction.REPORT);
+        bytes = ByteBuffer.allocate(bufferSize);
+        chars = CharBuffer.allocate(bufferSize);
+        chars.flip();
+    }
+
+    /**
+     * Reads the next row.
+     *
+     * @return Returns the generation of the row, or null if every row has been read.
+     * @throws IOException              If the channel cannot be read.
+     * @throws IllegalArgumentException If the row is empty or holds a symbol that is neither the false nor the true
+     *                                  symbol.
+     */
+    Generation next() throws IOException {
+        while (true) {
+            if (!chars.hasRemaining()) {
+                if (drained) {
+                    return size == 0 ? null : row();
+                }
+                fill();
+                continue;
+            }
+
+            char c = chars.get();
+            if (c == '\n' && afterReturn) {
+                afterReturn = false;
+                continue;
+            }
+            afterReturn = c == '\r';
+            if (c == '\n' || c == '\r') {
+                if (size == 0) {
+                    throw new IllegalArgumentException("row " + rows + " is empty");
+                }
+                return row();
+            }
+
+            long bit;
+            if (c == trueSymbol) {
+                bit = 1;
+            } else if (c == falseSymbol) {
+                bit = 0;
+            } else {
+                throw new IllegalArgumentException("cell " + size + " of row " + rows + " is '" + c
+                        + "', which is neither '" + falseSymbol + "' nor '" + trueSymbol + "'");
+            }
+            if (size == Integer.MAX_VALUE) {
+                throw new IllegalArgumentException("row " + rows + " has too many cells");
+            }
+            int k = size >>> 6;
+            if (k == words.length) {
+                words = Arrays.copyOf(words, (int) Math.min(Integer.MAX_VALUE - 8, 2L * words.length));
+            }
+            words[k] |= bit << size;
+            size++;
+        }
+    }
+
+    /**
+     * Gets the amount of rows read so far.
+     *
+     * @return Returns the amount of rows, the bytes read from the channel and the time since the reader was created.
+     */
+    TransferStats getStats() {
+        return new TransferStats(rows, read, System.nanoTime() - start);
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+
+    //hands over the row that was read and starts the next one with room for as many cells
+    private Generation row() {
+        //the words of the first row grow by doubling, and the generation keeps its array
+        if (words.length > Generation.wordCount(size)) {
+            words = Arrays.copyOf(words, Generation.wordCount(size));
+        }
+        Generation generation = Generation.fromWords(words, size);
+        words = new long[Generation.wordCount(size)];
+        size = 0;
+        rows++;
+        return generation;
+    }
+
+    //decodes the next chunk of the channel
+    private void fill() throws IOException {
+        chars.clear();
+        if (!end) {
+            int count = channel.read(bytes);
+            end = count < 0;
+            read += Math.max(count, 0);
+        }
+        bytes.flip();
+        CoderResult result = decoder.decode(bytes, chars, end);
+        drained = end && !result.isOverflow();
+        if (drained && !result.isError()) {
+            result = decoder.flush(chars);
+        }
+        if (result.isError()) {
+            throw new IllegalArgumentException("row " + rows + " is not valid " + decoder.charset().name() + " text");
+        }
+        bytes.compact();
+        chars.flip();
+    }
+}
@@ -0,0 +1,231 @@
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.Charset;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Writes generations to a channel one row at a time, in the same format as Automaton.toString: one line per
+ * generation, separated by line separators and without one after the last row. The rows are encoded into a fixed
+ * size buffer that is written out whenever it fills up, so the memory used does not depend on the width of the
+ * generations or the amount of steps, and the first rows reach the channel while later ones are still being made.
+ * <p>
+ * When both symbols are ASCII and the default charset encodes ASCII as itself, the rows skip the charset encoder
+ * and are turned into bytes by a TextEncoder eight cells at a time. Batches of rows given to writeRows are then
+ * encoded in parallel into one array of their text before it is written, so a batch holds the memory of its text
+ * and callers bound it by the size of the batches they hand over.
+ *
+ * @author Cole Hoffman
+ * @version 0.1
+ */
+final class EvolutionWriter implements Closeable {
+    //the amount of characters encoded at a time
+    static final int DEFAULT_BUFFER_SIZE = 1 << 16;
+
+    private final WritableByteChannel channel;
+    private final CharsetEncoder encoder;
+    private final CharBuffer chars;
+    private final ByteBuffer bytes;
+    private final char falseSymbol;
+    private final char trueSymbol;
+    private final String separator = System.lineSeparator();
+    //encodes the rows straight into bytes, null if the symbols need the charset encoder
+    private final TextEncoder symbols;
+    private final byte[] separatorBytes;
+    private final long start = System.nanoTime();
+    private long rows;
+    private long written;
+
+    /**
+     * Initializes a writer that encodes the rows in the default charset, like a FileWriter.
+     *
+     * @param channel     The channel to write to, which is closed with the writer.
+     * @param bufferSize  The amount of characters encoded before they are written, at least 64.
+     * @param falseSymbol The symbol of false cells.
+     * @param trueSymbol  The symbol of true cells.
+     */
+    EvolutionWriter(WritableByteChannel channel, int bufferSize, char falseSymbol, char trueSymbol) {
+        if (bufferSize < Generation.WORD_SIZE) {
+            throw new IllegalArgumentException("bufferSize must be at least " + Generation.WORD_SIZE);
+        }
+        this.channel = channel;
+        this.falseSymbol = falseSymbol;
+        this.trueSymbol = trueSymbol;
+        encoder = Charset.defaultCharset().newEncoder()
+                .onMalformedInput(CodingErrorAction.REPLACE)
+                .onUnmappableCharacter(CodingErrorAction.REPLACE);
+        chars = CharBuffer.allocate(bufferSize);
+        bytes = ByteBuffer.allocate((int) Math.ceil(bufferSize * (double) encoder.maxBytesPerChar()));
+
+        String ascii = separator + falseSymbol + trueSymbol;
+        boolean plain = falseSymbol < 0x80 && trueSymbol < 0x80 && Arrays.equals(
+                ascii.getBytes(Charset.defaultCharset()), ascii.getBytes(StandardCharsets.US_ASCII));
+        symbols = plain ? TextEncoder.of(falseSymbol, trueSymbol) : null;
+        separatorBytes = separator.getBytes(StandardCharsets.US_ASCII);
+    }
+
+    /**
+     * Writes the next row. The cells of the line in [left, right) that the generation does not cover are written
+     * as its background, which aligns the generations of an unbounded automaton.
+     *
+     * @param generation The generation to write.
+     * @param left       The position of the first cell of the row, at most the offset of the generation.
+     * @param right      The position after the last cell of the row, or anything up to the end of the generation
+     *                   to write only its own cells.
+     * @throws IOException If the channel cannot be written to.
+     */
+    void writeRow(Generation generation, long left, long right) throws IOException {
+        if (symbols != null) {
+            writeSymbols(generation, left, right);
+            return;
+        }
+        if (rows++ > 0) {
+            for (int i = 0; i < separator.length(); i++) {
+                put(separator.charAt(i));
+            }
+        }
+
+        char backgroundSymbol = generation.getBackground() ? trueSymbol : falseSymbol;
+        for (long x = left; x < generation.getOffset(); x++) {
+            put(backgroundSymbol);
+        }
+
+        //whole words at a time, so the buffer is only checked once per 64 cells
+        long[] words = generation.words();
+        int size = generation.size();
+        for (int k = 0; k * Generation.WORD_SIZE < size; k++) {
+            int count = Math.min(Generation.WORD_SIZE, size - k * Generation.WORD_SIZE);
+            if (chars.remaining() < count) {
+                drain(false);
+            }
+            long word = words[k];
+            for (int b = 0; b < count; b++) {
+                chars.put((word >>> b & 1) == 1 ? trueSymbol : falseSymbol);
+            }
+        }
+
+        for (long x = (long) generation.getOffset() + size; x < right; x++) {
+            put(backgroundSymbol);
+        }
+    }
+
+    /**
+     * Writes the next rows, see writeRow. Batches of rows are encoded in parallel on the common ForkJoinPool and
+     * written in order, so the writer holds the text of the whole batch at once.
+     *
+     * @param generations The generations to write, in order.
+     * @param count       The amount of generations to write, from the start of the array.
+     * @param left        The position of the first cell of every row, see writeRow.
+     * @param right       The position after the last cell of every row, see writeRow.
+     * @throws IOException If the channel cannot be written to.
+     */
+    void writeRows(Generation[] generations, int count, long left, long right) throws IOException {
+        if (symbols == null || count < 2) {
+            for (int i = 0; i < count; i++) {
+                writeRow(generations[i], left, right);
+            }
+            return;
+        }
+
+        flushBytes();
+        ByteBuffer text = ByteBuffer.wrap(symbols.encodeRows(generations, 0, count, left, right, separatorBytes,
+                rows > 0, ForkJoinPool.commonPool()));
+        while (text.hasRemaining()) {
+            written += channel.write(text);
+        }
+        rows += count;
+    }
+
+    /**
+     * Writes out the rows that are still buffered and closes the channel, which finishes compressed files.
+     *
+     * @return Returns the amount of rows and bytes written and the time since the writer was created.
+     * @throws IOException If the channel cannot be written to.
+     */
+    TransferStats finish() throws IOException {
+        drain(true);
+        while (encoder.flush(bytes).isOverflow()) {
+            flushBytes();
+        }
+        flushBytes();
+        channel.close();
+        return new TransferStats(rows, written, System.nanoTime() - start);
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+
+    //writes a row straight into the byte buffer, eight cells at a time
+    private void writeSymbols(Generation generation, long left, long right) throws IOException {
+        if (rows++ > 0) {
+            for (byte b : separatorBytes) {
+                putByte(b);
+            }
+        }
+
+        byte background = (byte) (generation.getBackground() ? trueSymbol : falseSymbol);
+        for (long x = left; x < generation.getOffset(); x++) {
+            putByte(background);
+        }
+
+        //as many cells as fit in the buffer, in whole bytes of cells so every piece starts at a multiple of 8
+        long[] words = generation.words();
+        int size = generation.size();
+        int from = 0;
+        while (from < size) {
+            if (bytes.remaining() < 8) {
+                flushBytes();
+            }
+            int to = Math.min(size, from + (bytes.remaining() & ~7));
+            symbols.encodeCells(words, from, to, bytes.array(), bytes.arrayOffset() + bytes.position());
+            bytes.position(bytes.position() + to - from);
+            from = to;
+        }
+
+        for (long x = (long) generation.getOffset() + size; x < right; x++) {
+            putByte(background);
+        }
+    }
+
+    private void putByte(byte b) throws IOException {
+        if (!bytes.hasRemaining()) {
+            flushBytes();
+        }
+        bytes.put(b);
+    }
+
+    private void put(char c) throws IOException {
+        if (!chars.hasRemaining()) {
+            drain(false);
+        }
+        chars.put(c);
+    }
+
+    //encodes the buffered characters, writing the bytes out whenever they fill their buffer
+    private void drain(boolean endOfInput) throws IOException {
+        chars.flip();
+        CoderResult result = encoder.encode(chars, bytes, endOfInput);
+        while (result.isOverflow()) {
+            flushBytes();
+            result = encoder.encode(chars, bytes, endOfInput);
+        }
+        chars.compact();
+    }
+
+    private void flushBytes() throws IOException {
+        bytes.flip();
+        while (bytes.hasRemaining()) {
+            written += channel.write(bytes);
+        }
+        bytes.clear();
+    }
+}
@@ -1,13 +1,41 @@
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
 /**
  * The purpose of this class is to represent Generations and their respective functions.
  * Houses methods that are used to get information from the generation.
+ * Cell states are packed 64 to a long, cell i being bit (i % 64) of word (i / 64).
+ * Sparse generations can instead be run-length encoded as the sorted cells where the state changes, in which case
+ * the words are only unpacked when something needs them, see RunKernel.
+ * A generation of an unbounded automaton is the part of an infinite line that is not background, starting at an
+ * offset on that line, with every cell outside of it in the background state.
+ * Generations evolved from a few true cells can also hold only the span of words from the first to the last word
+ * with a true cell, so that a step of a huge row that is mostly false only touches the words near its true cells.
  *
  * @author Cole Hoffman
- * @version 0.1
+ * @version 0.2
  */
 public class Generation {
-    //represents the states of a row at a fixed time
-    private final boolean[] cellStates;
+    //number of cells that are packed into a single word
+    static final int WORD_SIZE = 64;
+
+    //represents the states of a row at a fixed time, bits past the last cell are always 0. Unpacked from the
+    //toggles the first time they are needed when the generation is run-length encoded
+    private volatile long[] words;
+    //the sorted cells whose state differs from the cell before them, cell -1 counting as false, or null if the
+    //generation is stored in words
+    private final int[] toggles;
+    //the words from word spanFrom on, every other word being 0, or null if the generation is not stored this way.
+    //The first and last word of the span are never 0, a generation without true cells has an empty span
+    private final long[] span;
+    private final int spanFrom;
+    //the amount of cells in the row
+    private final int size;
+    //where cell 0 is on an unbounded line, and the state of every cell of that line outside the generation
+    private final int offset;
+    private final boolean background;
+    //the hash of the states, 0 until hashCode is first called
+    private int hash;
 
     /**
      * Initializes a generation.
@@ -20,8 +48,20 @@ public class Generation {
             cellStates = new boolean[]{false};
         }
 
-        //immutability, clone the cellStates array to the global cellStates variable
-        this.cellStates = cellStates.clone();
+        //immutability, the states are packed into a new array so the caller's array is never referenced
+        size = cellStates.length;
+        toggles = null;
+        span = null;
+        spanFrom = 0;
+        offset = 0;
+        background = false;
+        long[] words = new long[wordCount(size)];
+        for (int i = 0; i < size; i++) {
+            if (cellStates[i]) {
+                words[i >>> 6] |= 1L << i;
+            }
+        }
+        this.words = words;
     }
 
     /**
@@ -32,22 +72,510 @@ public class Generation {
      */
     public Generation(String states, char trueSymbol) {
         //null checks
+        toggles = null;
+        span = null;
+        spanFrom = 0;
+        offset = 0;
+        background = false;
         if (states == null || states.isEmpty()) {
-            cellStates = new boolean[]{false};
+            size = 1;
+            words = new long[1];
             return;
         }
 
-        //create new boolean array the size of the char array
-        cellStates = new boolean[states.length()];
+        //create new word array large enough to hold every char of the string
+        size = states.length();
+        long[] words = new long[wordCount(size)];
 
-        //loop over the char array and assign its correct corresponding value
-        for (int i = 0; i < states.length(); i++) {
+        //loop over the string and set the bit of every char that matches the true symbol
+        for (int i = 0; i < size; i++) {
             if (states.charAt(i) == trueSymbol) {
-                cellStates[i] = true;
-            } else {
-                cellStates[i] = false;
+                words[i >>> 6] |= 1L << i;
+            }
+        }
+        this.words = words;
+    }
+
+    //private so that it can never be confused with the (String, char) constructor when passed null
+    private Generation(long[] words, int[] toggles, int size) {
+        this(words, toggles, size, 0, false);
+    }
+
+    private Generation(long[] words, int[] toggles, int size, int offset, boolean background) {
+        this.words = words;
+        this.toggles = toggles;
+        this.size = size;
+        this.offset = offset;
+        this.background = background;
+        span = null;
+        spanFrom = 0;
+    }
+
+    private Generation(long[] span, int spanFrom, int size) {
+        this.span = span;
+        this.spanFrom = spanFrom;
+        this.size = size;
+        toggles = null;
+        offset = 0;
+        background = false;
+    }
+
+    /**
+     * Creates a generation directly from packed words. The array is not copied, so the caller must not
+     * modify it afterwards. Used by the rule kernels to hand over the words they have just computed.
+     *
+     * @param words The packed cell states, at least wordCount(size) long.
+     * @param size  The amount of cells in the generation.
+     * @return Returns a generation backed by the given words.
+     */
+    static Generation fromWords(long[] words, int size) {
+        if (size <= 0 || words.length < wordCount(size)) {
+            throw new IllegalArgumentException("words cannot hold " + size + " cells");
+        }
+
+        //clear the unused bits of the last word so that equal rows always have equal words
+        words[wordCount(size) - 1] &= lastWordMask(size);
+        return new Generation(words, null, size);
+    }
+
+    /**
+     * Creates a run-length encoded generation from the cells where the state changes. The array is not copied.
+     *
+     * @param toggles The strictly increasing cells whose state differs from the cell before them, the state
+     *                before cell 0 counting as false.
+     * @param size    The amount of cells in the generation.
+     * @return Returns a generation backed by the given toggles.
+     */
+    static Generation fromToggles(int[] toggles, int size) {
+        if (size <= 0 || (toggles.length > 0 && (toggles[0] < 0 || toggles[toggles.length - 1] >= size))) {
+            throw new IllegalArgumentException("toggles must be cells of a generation of " + size + " cells");
+        }
+        return new Generation(null, toggles, size);
+    }
+
+    /**
+     * Creates a generation whose true cells all lie in a span of words, see Rule.evolveActive. The span is trimmed
+     * to the words that are not 0, which are copied if any are trimmed.
+     *
+     * @param span The words from word from on, every other word being 0.
+     * @param from The index of the first word of the span.
+     * @param size The amount of cells in the generation.
+     * @return Returns a generation backed by the span.
+     */
+    static Generation fromSpan(long[] span, int from, int size) {
+        int count = wordCount(size);
+        if (size <= 0 || from < 0 || from + span.length > count) {
+            throw new IllegalArgumentException("the span must be words of a generation of " + size + " cells");
+        }
+        if (from + span.length == count) {
+            span[span.length - 1] &= lastWordMask(size);
+        }
+
+        int first = 0;
+        while (first < span.length && span[first] == 0) {
+            first++;
+        }
+        if (first == span.length) {
+            return new Generation(new long[0], 0, size);
+        }
+        int last = span.length - 1;
+        while (span[last] == 0) {
+            last--;
+        }
+        if (first > 0 || last < span.length - 1) {
+            span = Arrays.copyOfRange(span, first, last + 1);
+        }
+        return new Generation(span, from + first, size);
+    }
+
+    /**
+     * Gets the first word that holds a true cell. Only the span is read when the generation is stored as one.
+     *
+     * @return Returns the index of the word, or -1 if every cell is false.
+     */
+    int firstActiveWord() {
+        if (span != null) {
+            return span.length == 0 ? -1 : spanFrom;
+        }
+        long[] words = words();
+        for (int k = 0; k < wordCount(size); k++) {
+            if (words[k] != 0) {
+                return k;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Gets the last word that holds a true cell. Only the span is read when the generation is stored as one.
+     *
+     * @return Returns the index of the word, or -1 if every cell is false.
+     */
+    int lastActiveWord() {
+        if (span != null) {
+            return span.length == 0 ? -1 : spanFrom + span.length - 1;
+        }
+        long[] words = words();
+        for (int k = wordCount(size) - 1; k >= 0; k--) {
+            if (words[k] != 0) {
+                return k;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Copies a range of words without unpacking a generation that is stored as a span.
+     *
+     * @param from The first word to copy.
+     * @param to   The word after the last one to copy.
+     * @return Returns the words, 0 for words past the span.
+     */
+    long[] copyWords(int from, int to) {
+        if (span == null || words != null) {
+            return Arrays.copyOfRange(words(), from, to);
+        }
+        long[] copy = new long[to - from];
+        int start = Math.max(from, spanFrom);
+        int end = Math.min(to, spanFrom + span.length);
+        if (start < end) {
+            System.arraycopy(span, start - spanFrom, copy, start - from, end - start);
+        }
+        return copy;
+    }
+
+    /**
+     * Gets the amount of words needed to pack the given amount of cells.
+     *
+     * @param size The amount of cells.
+     * @return Returns the amount of longs needed to store the cells.
+     */
+    static int wordCount(int size) {
+        return (size + WORD_SIZE - 1) >>> 6;
+    }
+
+    /**
+     * Gets the mask of the bits of the last word that hold cells.
+     *
+     * @param size The amount of cells.
+     * @return Returns a mask with a 1 for every used bit of the last word.
+     */
+    static long lastWordMask(int size) {
+        return -1L >>> (-size & (WORD_SIZE - 1));
+    }
+
+    /**
+     * Gets the packed words that back this generation. The array is shared, callers must only read it.
+     *
+     * @return Returns the backing word array.
+     */
+    long[] words() {
+        long[] words = this.words;
+        if (words == null && span != null) {
+            words = new long[wordCount(size)];
+            System.arraycopy(span, 0, words, spanFrom, span.length);
+            this.words = words;
+        } else if (words == null) {
+            //unpack the runs, every true run sets the bits from its first toggle up to the next one
+            words = new long[wordCount(size)];
+            for (int t = 0; t < toggles.length; t += 2) {
+                int from = toggles[t];
+                int to = t + 1 < toggles.length ? toggles[t + 1] : size;
+                setRange(words, from, to);
+            }
+            this.words = words;
+        }
+        return words;
+    }
+
+    //sets the bits of the cells in [from, to)
+    private static void setRange(long[] words, int from, int to) {
+        if (from >= to) {
+            return;
+        }
+        int first = from >>> 6;
+        int last = (to - 1) >>> 6;
+        if (first == last) {
+            words[first] |= (-1L << from) & lastWordMask(to);
+            return;
+        }
+        words[first] |= -1L << from;
+        for (int k = first + 1; k < last; k++) {
+            words[k] = -1L;
+        }
+        words[last] |= lastWordMask(to);
+    }
+
+    /**
+     * Checks if the generation is run-length encoded rather than stored in words.
+     *
+     * @return Returns true if the generation is backed by toggles.
+     */
+    boolean isRunLength() {
+        return toggles != null;
+    }
+
+    /**
+     * Gets the cells whose state differs from the cell before them, the state before cell 0 counting as false.
+     * Run-length encoded generations share their array, callers must only read it.
+     *
+     * @return Returns the sorted toggles.
+     */
+    int[] toggles() {
+        if (toggles != null) {
+            return toggles;
+        }
+
+        int[] found = new int[16];
+        int count = 0;
+        long carry = 0;
+        for (int k = changesFrom(); k < changesTo(); k++) {
+            long word = word(k);
+            long changes = changes(word, k, carry);
+            carry = word >>> 63;
+            while (changes != 0) {
+                if (count == found.length) {
+                    found = Arrays.copyOf(found, count * 2);
+                }
+                found[count++] = (k << 6) + Long.numberOfTrailingZeros(changes);
+                changes &= changes - 1;
             }
         }
+        return Arrays.copyOf(found, count);
+    }
+
+    /**
+     * Counts the cells whose state differs from the cell before them, which is the amount of toggles a run-length
+     * encoding of the generation needs.
+     *
+     * @return Returns the amount of toggles.
+     */
+    int countToggles() {
+        if (toggles != null) {
+            return toggles.length;
+        }
+
+        int count = 0;
+        long carry = 0;
+        for (int k = changesFrom(); k < changesTo(); k++) {
+            long word = word(k);
+            count += Long.bitCount(changes(word, k, carry));
+            carry = word >>> 63;
+        }
+        return count;
+    }
+
+    //the first word that can hold a change of state, the words before a span are 0 like the cell before cell 0
+    private int changesFrom() {
+        return span != null ? spanFrom : 0;
+    }
+
+    //the word after the last one that can hold a change of state, which is the word after a span at the latest
+    private int changesTo() {
+        return span != null ? Math.min(wordCount(size), spanFrom + span.length + 1) : wordCount(size);
+    }
+
+    //gets word k of a generation stored in words or as a span without unpacking the span
+    private long word(int k) {
+        if (span != null) {
+            return k >= spanFrom && k < spanFrom + span.length ? span[k - spanFrom] : 0;
+        }
+        return words[k];
+    }
+
+    //the bits of word k whose cell differs from the cell before it, carry being the last cell of word k - 1
+    private long changes(long word, int k, long carry) {
+        long changes = word ^ (word << 1 | carry);
+        //a true last cell would otherwise toggle the cell after it
+        return k == wordCount(size) - 1 ? changes & lastWordMask(size) : changes;
+    }
+
+    /**
+     * Gets a run-length encoded copy of the generation, or the generation itself if it already is one.
+     *
+     * @return Returns a generation backed by toggles.
+     */
+    Generation toRunLength() {
+        return toggles != null ? this : new Generation(words, toggles(), size, offset, background);
+    }
+
+    /**
+     * Gets a copy of the generation stored in words, or the generation itself if it already is one.
+     *
+     * @return Returns a generation backed by words.
+     */
+    Generation toWords() {
+        return toggles == null ? this : new Generation(words(), null, size, offset, background);
+    }
+
+    /**
+     * Gets where cell 0 of the generation is on the infinite line of an unbounded automaton, see
+     * Automaton.setUnbounded. Generations of circular automata are always at offset 0.
+     *
+     * @return Returns the position of cell 0.
+     */
+    public int getOffset() {
+        return offset;
+    }
+
+    /**
+     * Gets the state of every cell outside the generation on the infinite line of an unbounded automaton.
+     *
+     * @return Returns the background state, false for generations of circular automata.
+     */
+    public boolean getBackground() {
+        return background;
+    }
+
+    /**
+     * Gets the same states placed somewhere else on an unbounded line. The states are shared, not copied.
+     *
+     * @param offset     The position of cell 0.
+     * @param background The state of every cell outside the generation.
+     * @return Returns the placed generation.
+     */
+    Generation placed(int offset, boolean background) {
+        return new Generation(toggles == null ? words() : null, toggles, size, offset, background);
+    }
+
+    /**
+     * Gets the generation with the given amount of background cells added on both sides, placed so that every cell
+     * keeps its position on the line.
+     *
+     * @param cells The amount of cells to add on each side.
+     * @return Returns the wider generation.
+     */
+    Generation widen(int cells) {
+        int wide = size + 2 * cells;
+        long[] next = new long[wordCount(wide)];
+        copyBits(words(), 0, next, cells, size);
+        if (background) {
+            setRange(next, 0, cells);
+            setRange(next, cells + size, wide);
+        }
+        return new Generation(next, null, wide, offset - cells, background);
+    }
+
+    /**
+     * Gets the generation without the background cells at either end, placed so that every cell keeps its position
+     * on the line. A generation of only background cells becomes a single background cell.
+     *
+     * @return Returns the trimmed generation.
+     */
+    Generation trim() {
+        long[] words = words();
+        int count = wordCount(size);
+        //the bits that differ from the background
+        long flip = background ? -1L : 0;
+        int first = 0;
+        while (first < count && ((words[first] ^ flip) & (first == count - 1 ? lastWordMask(size) : -1L)) == 0) {
+            first++;
+        }
+        if (first == count) {
+            return new Generation(new long[]{background ? 1 : 0}, null, 1, offset, background);
+        }
+        int last = count - 1;
+        while (((words[last] ^ flip) & (last == count - 1 ? lastWordMask(size) : -1L)) == 0) {
+            last--;
+        }
+
+        int from = (first << 6) + Long.numberOfTrailingZeros(words[first] ^ flip);
+        long lastBits = (words[last] ^ flip) & (last == count - 1 ? lastWordMask(size) : -1L);
+        int to = (last << 6) + WORD_SIZE - Long.numberOfLeadingZeros(lastBits);
+        if (from == 0 && to == size) {
+            return this;
+        }
+
+        long[] next = new long[wordCount(to - from)];
+        copyBits(words, from, next, 0, to - from);
+        return new Generation(next, null, to - from, offset + from, background);
+    }
+
+    /**
+     * Gets the cells of a part of the line as a generation of its own, cell i being the cell at position left + i.
+     * Positions outside the generation have its background state.
+     *
+     * @param left  The position of the first cell.
+     * @param width The amount of cells.
+     * @return Returns the cells of the part of the line, this generation if it covers exactly that part.
+     */
+    Generation aligned(long left, int width) {
+        if (left == offset && width == size) {
+            return this;
+        }
+
+        long[] line = new long[wordCount(width)];
+        long from = Math.max(left, offset);
+        long to = Math.min(left + width, (long) offset + size);
+        if (background) {
+            setRange(line, 0, (int) Math.min(width, Math.max(0, from - left)));
+            setRange(line, (int) Math.max(0, to - left), width);
+        }
+        if (from < to) {
+            copyBits(words(), (int) (from - offset), line, (int) (from - left), (int) (to - from));
+        }
+        return new Generation(line, null, width);
+    }
+
+    //copies length bits starting at bit from of src into dest starting at bit to, dest bits must still be 0
+    private static void copyBits(long[] src, int from, long[] dest, int to, int length) {
+        for (int i = 0; i < length; i += WORD_SIZE) {
+            int pos = from + i;
+            int k = pos >>> 6;
+            long bits = src[k] >>> pos;
+            if ((pos & 63) != 0 && k + 1 < src.length) {
+                bits |= src[k + 1] << -pos;
+            }
+            bits &= lastWordMask(Math.min(WORD_SIZE, length - i));
+
+            int target = to + i;
+            dest[target >>> 6] |= bits << target;
+            if ((target & 63) != 0 && (target >>> 6) + 1 < dest.length) {
+                dest[(target >>> 6) + 1] |= bits >>> -target;
+            }
+        }
+    }
+
+    /**
+     * Copies the words into a new array with halo cells on both sides, so that kernels can read the neighbors of
+     * any word with plain shifts. Word 0 holds the radius cells before the first cell in its highest bits, words
+     * 1 to wordCount(size) hold the generation, and the radius cells after the last cell directly follow it.
+     * Cell i is therefore bit (i + 64) of the returned array. The halo uses circular boundary conditions.
+     *
+     * @param radius The amount of halo cells needed on each side, at most 64.
+     * @return Returns the padded copy of the words.
+     */
+    long[] paddedWords(int radius) {
+        return paddedWords(radius, Boundary.PERIODIC);
+    }
+
+    /**
+     * Copies the words into a new array with halo cells on both sides, see paddedWords(int), with the halo cells
+     * given by a boundary condition.
+     *
+     * @param radius   The amount of halo cells needed on each side, at most 64.
+     * @param boundary The boundary condition that gives the states of the halo cells.
+     * @return Returns the padded copy of the words.
+     */
+    long[] paddedWords(int radius, Boundary boundary) {
+        long[] words = words();
+        int count = wordCount(size);
+        long[] padded = new long[count + 2];
+        System.arraycopy(words, 0, padded, 1, count);
+
+        for (int i = 1; i <= radius; i++) {
+            //cells before the first, which come from the end of the row when it is circular
+            if (boundary.haloState(this, -i)) {
+                padded[0] |= 1L << (WORD_SIZE - i);
+            }
+            //cells after the last, which come from the start of the row when it is circular
+            if (boundary.haloState(this, size - 1 + i)) {
+                int pos = size - 1 + i + WORD_SIZE;
+                padded[pos >>> 6] |= 1L << pos;
+            }
+        }
+
+        return padded;
     }
 
     /**
@@ -58,18 +586,36 @@ public class Generation {
      */
     //return the cellState of the given index
     public boolean getState(int idx) {
-        //returns clone for immutability
-        return cellStates.clone()[idx];
+        //the words are never handed out, so no clone is needed for immutability
+        if (idx < 0 || idx >= size) {
+            throw new ArrayIndexOutOfBoundsException(idx);
+        }
+        if (span != null) {
+            return (word(idx >>> 6) & (1L << idx)) != 0;
+        }
+        long[] words = this.words;
+        if (words == null) {
+            //the state is true after an odd amount of toggles at or before the index
+            int found = Arrays.binarySearch(toggles, idx);
+            int count = found >= 0 ? found + 1 : -found - 1;
+            return (count & 1) == 1;
+        }
+        return (words[idx >>> 6] & (1L << idx)) != 0;
     }
 
     /**
      * Returns all the states of a generation.
      *
-     * @return Returns a clone of the cellStates array.
+     * @return Returns a new array holding the unpacked cell states.
      */
     public boolean[] getStates() {
-        //returns clone of states, immutability
-        return cellStates.clone();
+        //unpack into a new array, immutability
+        long[] words = words();
+        boolean[] cellStates = new boolean[size];
+        for (int i = 0; i < size; i++) {
+            cellStates[i] = (words[i >>> 6] & (1L << i)) != 0;
+        }
+        return cellStates;
     }
 
     /**
@@ -80,12 +626,21 @@ public class Generation {
      * @return Returns the states as a string which has its true or false values replaced with its respective symbol.
      */
     public String getStates(char falseSymbol, char trueSymbol) {
+        //single byte symbols are looked up eight cells at a time, see TextEncoder
+        TextEncoder encoder = TextEncoder.of(falseSymbol, trueSymbol);
+        if (encoder != null) {
+            byte[] symbols = new byte[size];
+            encoder.encodeCells(words(), size, symbols, 0);
+            return new String(symbols, StandardCharsets.ISO_8859_1);
+        }
+
         //stringbuilder to create the string
-        StringBuilder stringBuilder = new StringBuilder();
+        long[] words = words();
+        StringBuilder stringBuilder = new StringBuilder(size);
 
         //if true, append the trueSymbol, else append falseSymbol to the stringbuilder
-        for (boolean s : getStates()) {
-            if (s) {
+        for (int i = 0; i < size; i++) {
+            if ((words[i >>> 6] & (1L << i)) != 0) {
                 stringBuilder.append(trueSymbol);
             } else {
                 stringBuilder.append(falseSymbol);
@@ -95,13 +650,200 @@ public class Generation {
         return stringBuilder.toString();
     }
 
+    /**
+     * Copies all the states of a generation into an existing array, so that callers reading every generation of an
+     * automaton can reuse one buffer instead of allocating a new array per generation.
+     *
+     * @param dest The array to copy the states into, at least size() long.
+     */
+    public void copyStates(boolean[] dest) {
+        copyStates(0, dest, 0, size);
+    }
+
+    /**
+     * Copies a range of states of a generation into an existing array.
+     *
+     * @param from    The index of the first cell to copy.
+     * @param dest    The array to copy the states into.
+     * @param destPos The index in dest that receives the first cell.
+     * @param length  The amount of cells to copy.
+     */
+    public void copyStates(int from, boolean[] dest, int destPos, int length) {
+        checkRange(from, from + length);
+        if (destPos < 0 || destPos + length > dest.length) {
+            throw new ArrayIndexOutOfBoundsException(destPos + length);
+        }
+
+        long[] words = words();
+        for (int i = 0; i < length; i++) {
+            int idx = from + i;
+            dest[destPos + i] = (words[idx >>> 6] & (1L << idx)) != 0;
+        }
+    }
+
+    /**
+     * Gets the index of the first true cell at or after the given index. Looping with
+     * {@code for (int i = gen.nextSetCell(0); i >= 0; i = gen.nextSetCell(i + 1))} visits every true cell without
+     * allocating anything.
+     *
+     * @param from The index to start searching from.
+     * @return Returns the index of the next true cell, or -1 if there is none.
+     */
+    public int nextSetCell(int from) {
+        return nextSetCell(from, size);
+    }
+
+    /**
+     * Counts the true cells of a generation.
+     *
+     * @return Returns the amount of cells whose state is true.
+     */
+    public int countSetCells() {
+        return countSetCells(0, size);
+    }
+
+    /**
+     * Gets a read-only view of a range of cells. The view shares the words of this generation, so creating it
+     * does not copy any states.
+     *
+     * @param from The index of the first cell of the window, inclusive.
+     * @param to   The index after the last cell of the window, exclusive.
+     * @return Returns the view of the range.
+     */
+    public GenerationWindow window(int from, int to) {
+        checkRange(from, to);
+        return new GenerationWindow(this, from, to);
+    }
+
+    //searches the words for the next true cell in the range [from, to)
+    int nextSetCell(int from, int to) {
+        if (from < 0) {
+            throw new ArrayIndexOutOfBoundsException(from);
+        }
+        if (from >= to) {
+            return -1;
+        }
+
+        long[] words = words();
+        int k = from >>> 6;
+        int last = (to - 1) >>> 6;
+        //ignore the cells of the first word that come before from
+        long word = words[k] & (-1L << from);
+        while (word == 0) {
+            if (++k > last) {
+                return -1;
+            }
+            word = words[k];
+        }
+
+        int idx = (k << 6) + Long.numberOfTrailingZeros(word);
+        return idx < to ? idx : -1;
+    }
+
+    //counts the true cells in the range [from, to)
+    int countSetCells(int from, int to) {
+        if (from >= to) {
+            return 0;
+        }
+
+        long[] words = words();
+        int first = from >>> 6;
+        int last = (to - 1) >>> 6;
+        long firstMask = -1L << from;
+        long lastMask = lastWordMask(to);
+        if (first == last) {
+            return Long.bitCount(words[first] & firstMask & lastMask);
+        }
+
+        int count = Long.bitCount(words[first] & firstMask) + Long.bitCount(words[last] & lastMask);
+        for (int k = first + 1; k < last; k++) {
+            count += Long.bitCount(words[k]);
+        }
+        return count;
+    }
+
+    //throws if the range [from, to) is not inside the generation
+    void checkRange(int from, int to) {
+        if (from < 0 || to > size || from > to) {
+            throw new IndexOutOfBoundsException("range [" + from + ", " + to + ") is outside [0, " + size + ")");
+        }
+    }
+
     /**
      * Returns the size of the cellStates.
      *
-     * @return Returns an integer represented by the cellStates cloned length.
+     * @return Returns the amount of cells in the generation.
      */
     public int size() {
-        //return cellStates size clone length, clone not necessary, just for extra peace of mind with immutability
-        return cellStates.clone().length;
+        return size;
+    }
+
+    /**
+     * Checks if two generations hold the same states.
+     *
+     * @param o The object to compare to.
+     * @return Returns true if o is a generation of the same size with the same states.
+     */
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof Generation)) {
+            return false;
+        }
+        Generation other = (Generation) o;
+        //hashes are only compared when both are known, computing one costs more than comparing the words
+        if (size != other.size || offset != other.offset || background != other.background || (hash != 0 && other.hash != 0 && hash != other.hash)) {
+            return false;
+        }
+        //generations stored differently are converted to compare them, which a different hash saves, and the hash
+        //of runs or a span only reads those
+        if ((toggles != null) != (other.toggles != null) || (span != null) != (other.span != null)) {
+            if (hashCode() != other.hashCode()) {
+                return false;
+            }
+        }
+        if (toggles != null || other.toggles != null) {
+            return Arrays.equals(toggles(), other.toggles());
+        }
+        //spans are trimmed, so equal spans start at the same word and hold the same words
+        if (span != null && other.span != null) {
+            return spanFrom == other.spanFrom && Arrays.equals(span, other.span);
+        }
+        //the unused bits of the last word are always 0, so the words can be compared directly
+        return Arrays.equals(words(), 0, wordCount(size), other.words(), 0, wordCount(size));
+    }
+
+    /**
+     * Gets the hash code of the states, computed once since a generation never changes. The hash only depends on
+     * the cells where the state changes, so that it is the same whether or not the generation is run-length encoded.
+     *
+     * @return Returns a hash of the size and the states.
+     */
+    @Override
+    public int hashCode() {
+        int h = hash;
+        if (h == 0) {
+            h = 31 * (31 * size + offset) + (background ? 1 : 0);
+            if (toggles != null) {
+                for (int toggle : toggles) {
+                    h = 31 * h + toggle;
+                }
+            } else {
+                long carry = 0;
+                for (int k = changesFrom(); k < changesTo(); k++) {
+                    long word = word(k);
+                    long changes = changes(word, k, carry);
+                    carry = word >>> 63;
+                    while (changes != 0) {
+                        h = 31 * h + (k << 6) + Long.numberOfTrailingZeros(changes);
+                        changes &= changes - 1;
+                    }
+                }
+            }
+            hash = h;
+        }
+        return h;
     }
 }
@@ -0,0 +1,213 @@
+import java.util.ArrayList;
+import java.util.function.UnaryOperator;
+
+/**
+ * Decides which generations of an automaton are kept. Steps are added one at a time, step n being the generation
+ * after n evolutions, and a history may forget old steps to bound its memory: keepAll keeps every step, keepLast
+ * keeps the latest k in a ring buffer and keepCurrent keeps only the latest one. A checkpointed history keeps every
+ * step but only stores some of them, evolving the others again when they are read, a delta history stores
+ * most steps as the cells that changed, and a mapped history keeps every step in a file.
+ *
+ * @author Cole Hoffman
+ * @version 0.1
+ */
+public abstract class GenerationHistory {
+    //the amount of steps added, so the last step is count - 1
+    private int count;
+    //the step of the first generation that was added
+    private int firstStep;
+
+    /**
+     * Creates a history that keeps every generation.
+     *
+     * @return Returns the history.
+     */
+    public static GenerationHistory keepAll() {
+        return new All();
+    }
+
+    /**
+     * Creates a history that keeps the latest generations in a ring buffer, so it never holds more than k of them.
+     *
+     * @param k The amount of generations to keep, at least 1.
+     * @return Returns the history.
+     */
+    public static GenerationHistory keepLast(int k) {
+        return new Last(k);
+    }
+
+    /**
+     * Creates a history that only keeps the latest generation.
+     *
+     * @return Returns the history.
+     */
+    public static GenerationHistory keepCurrent() {
+        return new Last(1);
+    }
+
+    /**
+     * Creates a history that keeps every step but only stores every interval-th generation, see
+     * CheckpointedHistory. Other steps are evolved again from the checkpoint before them when they are read.
+     *
+     * @param interval  The amount of steps between stored generations, at least 1.
+     * @param cacheSize The amount of generations evolved again that are cached, 0 for no cache.
+     * @return Returns the history.
+     */
+    public static GenerationHistory checkpointed(int interval, int cacheSize) {
+        return new CheckpointedHistory(interval, cacheSize);
+    }
+
+    /**
+     * Creates a checkpointed history whose interval is chosen so that the stored generations fit in a memory
+     * budget. Half of the budget holds checkpoints and the other half holds the cache.
+     *
+     * @param maxBytes The amount of memory the generations may use.
+     * @param width    The amount of cells of every generation.
+     * @param maxSteps The amount of steps the automaton is expected to evolve.
+     * @return Returns the history with the smallest interval that fits the budget.
+     */
+    public static GenerationHistory withinBudget(long maxBytes, int width, int maxSteps) {
+        //the words of a generation plus the generation and array headers
+        long bytesPerGeneration = 8L * Generation.wordCount(width) + 48;
+        long generations = Math.max(2, maxBytes / bytesPerGeneration);
+        long checkpoints = generations / 2;
+        int interval = (int) Math.max(1, (maxSteps + checkpoints) / checkpoints);
+        int cacheSize = (int) Math.min(interval, generations - checkpoints);
+        return new CheckpointedHistory(interval, cacheSize);
+    }
+
+    /**
+     * Creates a history that keeps every step, storing every interval-th generation whole and every other step
+     * as the words that changed since the step before it, see DeltaHistory.
+     *
+     * @param interval The amount of steps between generations that are stored whole, at least 1.
+     * @return Returns the history.
+     */
+    public static GenerationHistory deltas(int interval) {
+        return new DeltaHistory(interval);
+    }
+
+    /**
+     * Creates a history that keeps every step in a binary file rather than in memory, see MappedHistory. Any step
+     * is read straight from the file, and the file can be turned back into an automaton with
+     * Automaton.fromHistory.
+     *
+     * @param filename The file that holds the steps, which is replaced if it exists.
+     * @return Returns the history, which holds the file open until it is closed.
+     */
+    public static MappedHistory mapped(String filename) {
+        return MappedHistory.create(filename);
+    }
+
+    /**
+     * Gets how much smaller the stored steps are than full copies of every step that was added.
+     *
+     * @return Returns the size of full copies divided by the size that is stored, 1 for histories that store
+     * every generation whole.
+     */
+    public double getCompressionRatio() {
+        return 1;
+    }
+
+    /**
+     * Gets the oldest step that is still kept.
+     *
+     * @return Returns the step number of the oldest kept generation.
+     */
+    public int getFirstStep() {
+        return firstStep;
+    }
+
+    /**
+     * Gets the latest step that was added.
+     *
+     * @return Returns the step number of the latest generation, or -1 if none was added.
+     */
+    public final int getLastStep() {
+        return count - 1;
+    }
+
+    //stores the generation of a step, which is always the step after the last one
+    abstract void store(int step, Generation generation);
+
+    //loads the generation of a step between getFirstStep() and getLastStep()
+    abstract Generation load(int step);
+
+    //gives the history a way to evolve a generation one step, for histories that evolve steps again
+    void attach(UnaryOperator<Generation> evolver) {
+    }
+
+    //tells the history which automaton it keeps the steps of and the first generation it is given, called once the
+    //first step is known
+    void attach(Automaton automaton, Generation first) {
+    }
+
+    //appends the generation of the next step
+    final void add(Generation generation) {
+        store(count, generation);
+        count++;
+    }
+
+    //gets the generation of a step, throwing if it is not kept
+    final Generation get(int step) {
+        if (step < getFirstStep() || step > getLastStep()) {
+            throw new IllegalStateException("step " + step + " is not kept, the history keeps steps "
+                    + getFirstStep() + " to " + getLastStep());
+        }
+        return load(step);
+    }
+
+    //makes the next added generation the given step, only called before anything is added
+    final void startAt(int step) {
+        count = step;
+        firstStep = step;
+    }
+
+    //makes the history keep the steps from firstStep to lastStep, for histories that already hold them
+    final void resume(int firstStep, int lastStep) {
+        this.firstStep = firstStep;
+        count = lastStep + 1;
+    }
+
+    //keeps every generation in a list
+    private static final class All extends GenerationHistory {
+        private final ArrayList<Generation> generations = new ArrayList<>();
+
+        @Override
+        void store(int step, Generation generation) {
+            generations.add(generation);
+        }
+
+        @Override
+        Generation load(int step) {
+            return generations.get(step - getFirstStep());
+        }
+    }
+
+    //keeps the latest k generations, step n being in slot n % k
+    private static final class Last extends GenerationHistory {
+        private final Generation[] ring;
+
+        Last(int k) {
+            if (k < 1) {
+                throw new IllegalArgumentException("at least 1 generation must be kept");
+            }
+            ring = new Generation[k];
+        }
+
+        @Override
+        public int getFirstStep() {
+            return Math.max(super.getFirstStep(), getLastStep() + 1 - ring.length);
+        }
+
+        @Override
+        void store(int step, Generation generation) {
+            ring[step % ring.length] = generation;
+        }
+
+        @Override
+        Generation load(int step) {
+            return ring[step % ring.length];
+        }
+    }
+}
@@ -0,0 +1,90 @@
+/**
+ * A read-only view of a range of cells of a Generation. The view reads the words of the generation it was created
+ * from, so no states are copied, and since generations are immutable the view can never change either.
+ *
+ * @author Cole Hoffman
+ * @version 0.1
+ */
+public class GenerationWindow {
+    //the generation that holds the states
+    private final Generation generation;
+    //the range of the generation that the window covers, [from, to)
+    private final int from;
+    private final int to;
+
+    GenerationWindow(Generation generation, int from, int to) {
+        this.generation = generation;
+        this.from = from;
+        this.to = to;
+    }
+
+    /**
+     * Gets the state of an index relative to the start of the window.
+     *
+     * @param idx The index to get the state of.
+     * @return Returns the state of the given index.
+     */
+    public boolean getState(int idx) {
+        if (idx < 0 || idx >= size()) {
+            throw new ArrayIndexOutOfBoundsException(idx);
+        }
+        return generation.getState(from + idx);
+    }
+
+    /**
+     * Copies the states of the window into an existing array.
+     *
+     * @param dest    The array to copy the states into.
+     * @param destPos The index in dest that receives the first cell of the window.
+     */
+    public void copyStates(boolean[] dest, int destPos) {
+        generation.copyStates(from, dest, destPos, size());
+    }
+
+    /**
+     * Gets the index of the first true cell at or after the given index, relative to the start of the window.
+     *
+     * @param idx The index to start searching from.
+     * @return Returns the index of the next true cell, or -1 if there is none.
+     */
+    public int nextSetCell(int idx) {
+        if (idx < 0) {
+            throw new ArrayIndexOutOfBoundsException(idx);
+        }
+        int next = generation.nextSetCell(Math.min(from + idx, to), to);
+        return next < 0 ? -1 : next - from;
+    }
+
+    /**
+     * Counts the true cells of the window.
+     *
+     * @return Returns the amount of cells whose state is true.
+     */
+    public int countSetCells() {
+        return generation.countSetCells(from, to);
+    }
+
+    /**
+     * Gets the states of the window given true and false symbols.
+     *
+     * @param falseSymbol The symbol that represents an element as false.
+     * @param trueSymbol  The symbol that represents an element as true.
+     * @return Returns the states as a string which has its true or false values replaced with its respective symbol.
+     */
+    public String getStates(char falseSymbol, char trueSymbol) {
+        StringBuilder stringBuilder = new StringBuilder(size());
+        for (int i = from; i < to; i++) {
+            stringBuilder.append(generation.getState(i) ? trueSymbol : falseSymbol);
+        }
+        return stringBuilder.toString();
+    }
+
+    /**
+     * Returns the amount of cells in the window.
+     *
+     * @return Returns the size of the window.
+     */
+    public int size() {
+        return to - from;
+    }
+}
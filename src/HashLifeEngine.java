@@ -0,0 +1,290 @@
+import java.util.HashMap;
+
+/**
+ * Jumps a generation ahead by huge step counts with a one-dimensional version of Gosper's HashLife algorithm.
+ * <p>
+ * A row of 2^k cells is stored as a binary tree of nodes, where the leaves hold 64 cells and every other node
+ * joins two nodes of half its width. Nodes are hash-consed, so identical stretches of cells are the same node, and
+ * every node memoizes its result: the center half of its cells after 2^j steps, which only depends on the node's
+ * own cells as long as 2^j * radius is at most a quarter of its width. The result of a node is computed from the
+ * results of five nodes of half its width, so patterns that repeat in space or time are only ever evolved once
+ * and step counts like 10^9 cost a number of node operations that grows with the logarithm of the step count.
+ * <p>
+ * The generations evolved by Rule are circular, so a generation of n cells is treated as an infinite row that
+ * repeats every n cells. The nodes of such a row only depend on their starting cell modulo n, which keeps the tree
+ * of even a huge window at no more than n distinct nodes per level.
+ * <p>
+ * The size of the node cache is only checked between jumps of a power of two steps: when it holds more than maxNodes
+ * nodes before a jump, it is cleared and rebuilt. A single jump keeps every node it makes, so while it runs the cache
+ * can grow well past maxNodes.
+ *
+ * @author Cole Hoffman
+ * @version 0.1
+ */
+public class HashLifeEngine {
+    //the level of the leaves, which hold 2^6 = 64 cells in a long
+    private static final int LEAF_LEVEL = 6;
+
+    private final Rule rule;
+    //log2 of the radius, rounded up, so that radius << radiusLog bounds how far changes travel per step
+    private final int radiusLog;
+    private final int maxNodes;
+    //the canonical leaves and inner nodes
+    private HashMap<Long, Node> leaves = new HashMap<>();
+    private HashMap<Node, Node> nodes = new HashMap<>();
+
+    /**
+     * A node of the tree. Leaves hold their cells in bits, inner nodes join a left and a right node of one level
+     * lower. Two canonical nodes hold the same cells if and only if they are the same object.
+     */
+    private static final class Node {
+        private final int level;
+        private final long bits;
+        private final Node left;
+        private final Node right;
+        private final int hash;
+        //results[j] is the center half of the node after 2^j steps, computed the first time it is needed
+        private Node[] results;
+
+        //creates a leaf
+        Node(long bits) {
+            this.level = LEAF_LEVEL;
+            this.bits = bits;
+            this.left = null;
+            this.right = null;
+            this.hash = Long.hashCode(bits);
+        }
+
+        //creates an inner node, children are canonical so they are compared by identity
+        Node(Node left, Node right) {
+            this.level = left.level + 1;
+            this.bits = 0;
+            this.left = left;
+            this.right = right;
+            this.hash = 31 * System.identityHashCode(left) + System.identityHashCode(right);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (!(o instanceof Node)) {
+                return false;
+            }
+            Node other = (Node) o;
+            return level == other.level && bits == other.bits && left == other.left && right == other.right;
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+    }
+
+    /**
+     * Initializes a HashLife engine.
+     *
+     * @param rule     The rule to evolve with, of a radius up to 16.
+     * @param maxNodes The amount of nodes above which the cache is cleared before the next jump, which is only
+     *                 checked between jumps, so a single jump can grow the cache past it.
+     */
+    public HashLifeEngine(Rule rule, int maxNodes) {
+        if (rule.getRadius() < 1 || rule.getRadius() > 16) {
+            throw new IllegalArgumentException("the radius must be between 1 and 16");
+        }
+
+        this.rule = rule;
+        this.radiusLog = 32 - Integer.numberOfLeadingZeros(rule.getRadius() - 1);
+        this.maxNodes = maxNodes;
+    }
+
+    /**
+     * Gets the amount of nodes currently in the cache.
+     *
+     * @return Returns the amount of canonical nodes.
+     */
+    public int getNodeCount() {
+        return leaves.size() + nodes.size();
+    }
+
+    /**
+     * Evolves a generation the amount of steps specified further, one power of two at a time.
+     *
+     * @param gen      The generation to evolve.
+     * @param numSteps The amount of steps to evolve, 0 or more.
+     * @return Returns the generation after numSteps steps.
+     */
+    public Generation evolve(Generation gen, long numSteps) {
+        if (numSteps < 0) {
+            throw new IllegalArgumentException("numSteps cannot be negative");
+        }
+
+        for (int j = 0; numSteps >>> j != 0; j++) {
+            if ((numSteps >>> j & 1) == 1) {
+                gen = jump(gen, j);
+            }
+        }
+
+        return gen;
+    }
+
+    //evolves a circular generation 2^j steps
+    private Generation jump(Generation gen, int j) {
+        if (getNodeCount() > maxNodes) {
+            leaves = new HashMap<>();
+            nodes = new HashMap<>();
+        }
+
+        int size = gen.size();
+        //the root needs a center half of at least size cells and a quarter of at least 2^j * radius cells
+        int level = Math.max(LEAF_LEVEL + 1, j + 2 + radiusLog);
+        while (level - 1 < 31 && (1 << (level - 1)) < size) {
+            level++;
+        }
+
+        //powers[k] is 2^k mod size, the shift of the start of a right child of level k + 1
+        long[] powers = new long[level + 1];
+        powers[0] = 1 % size;
+        for (int k = 1; k <= level; k++) {
+            powers[k] = powers[k - 1] * 2 % size;
+        }
+
+        //the result of the root starts a quarter of its width after the root, which should be cell 0
+        long start = Math.floorMod(-powers[level - 2], (long) size);
+        HashMap<Long, Node> tiles = new HashMap<>();
+        Node root = tile(gen, level, start, powers, tiles);
+        Node result = result(root, j);
+
+        //the result repeats every size cells, read one period of it
+        long[] words = new long[Generation.wordCount(size)];
+        read(result, 0, words, size);
+        return Generation.fromWords(words, size);
+    }
+
+    //builds the node of the repeating row of width 2^level starting at cell start, with start below the size
+    private Node tile(Generation gen, int level, long start, long[] powers, HashMap<Long, Node> tiles) {
+        //powers holds one entry per level up to the root, so no two (start, level) pairs share a key
+        long key = start * powers.length + level;
+        Node node = tiles.get(key);
+        if (node != null) {
+            return node;
+        }
+
+        if (level == LEAF_LEVEL) {
+            int size = gen.size();
+            long bits = 0;
+            for (int i = 0; i < 64; i++) {
+                if (gen.getState((int) ((start + i) % size))) {
+                    bits |= 1L << i;
+                }
+            }
+            node = leaf(bits);
+        } else {
+            Node left = tile(gen, level - 1, start, powers, tiles);
+            Node right = tile(gen, level - 1, (start + powers[level - 1]) % gen.size(), powers, tiles);
+            node = join(left, right);
+        }
+
+        tiles.put(key, node);
+        return node;
+    }
+
+    //copies the cells of a node that fall in [0, size) into the words, node starting at cell offset
+    private void read(Node node, long offset, long[] words, int size) {
+        if (offset >= size) {
+            return;
+        }
+        if (node.level == LEAF_LEVEL) {
+            for (int i = 0; i < 64 && offset + i < size; i++) {
+                int idx = (int) offset + i;
+                words[idx >>> 6] |= (node.bits >>> i & 1) << idx;
+            }
+            return;
+        }
+
+        read(node.left, offset, words, size);
+        //the right half of a node this wide starts far past any generation
+        if (node.level - 1 < 62) {
+            read(node.right, offset + (1L << (node.level - 1)), words, size);
+        }
+    }
+
+    private Node leaf(long bits) {
+        Node node = leaves.get(bits);
+        if (node == null) {
+            node = new Node(bits);
+            leaves.put(bits, node);
+        }
+        return node;
+    }
+
+    private Node join(Node left, Node right) {
+        Node node = new Node(left, right);
+        Node canonical = nodes.get(node);
+        if (canonical == null) {
+            nodes.put(node, node);
+            return node;
+        }
+        return canonical;
+    }
+
+    //gets the center half of a node, without evolving it
+    private Node center(Node node) {
+        if (node.level == LEAF_LEVEL + 1) {
+            return leaf(node.left.bits >>> 32 | node.right.bits << 32);
+        }
+        return join(node.left.right, node.right.left);
+    }
+
+    //gets the center half of a node after 2^j steps, where 2^j * radius is at most a quarter of the node
+    private Node result(Node node, int j) {
+        int maxJ = node.level - 2 - radiusLog;
+        if (node.results == null) {
+            node.results = new Node[maxJ + 1];
+        }
+        if (node.results[j] != null) {
+            return node.results[j];
+        }
+
+        Node result;
+        if (node.level == LEAF_LEVEL + 1) {
+            result = simulate(node, j);
+        } else {
+            //three overlapping nodes of half the width, at a quarter of the width apart
+            Node n0 = node.left;
+            Node n1 = join(node.left.right, node.right.left);
+            Node n2 = node.right;
+
+            //at full speed each of the two phases advances half of the steps, otherwise only the second phase does
+            Node r0;
+            Node r1;
+            Node r2;
+            int second;
+            if (j == maxJ) {
+                r0 = result(n0, j - 1);
+                r1 = result(n1, j - 1);
+                r2 = result(n2, j - 1);
+                second = j - 1;
+            } else {
+                r0 = center(n0);
+                r1 = center(n1);
+                r2 = center(n2);
+                second = j;
+            }
+
+            result = join(result(join(r0, r1), second), result(join(r1, r2), second));
+        }
+
+        node.results[j] = result;
+        return result;
+    }
+
+    //evolves the 128 cells of a node directly, the cells within 2^j * radius of either end are never read back
+    private Node simulate(Node node, int j) {
+        Generation gen = Generation.fromWords(new long[]{node.left.bits, node.right.bits}, 128);
+        for (int i = 0; i < 1 << j; i++) {
+            gen = rule.evolve(gen);
+        }
+
+        long[] words = gen.words();
+        return leaf(words[0] >>> 32 | words[1] << 32);
+    }
+}
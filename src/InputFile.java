@@ -0,0 +1,217 @@
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.charset.Charset;
+import java.nio.charset.CharsetDecoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.CodingErrorAction;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Arrays;
+
+/**
+ * Reads the input files of Automaton(String): the rule number on the first line, the false and true symbols
+ * separated by a space on the second line, and the initial generation as one symbol per cell on the third line.
+ * The file is read in fixed size chunks and the cells are packed into words as they are decoded, so the row is
+ * never held as a String and a row of hundreds of millions of cells only takes the memory of its words.
+ * <p>
+ * Inputs that do not follow the format are rejected with an IllegalArgumentException that says what is wrong,
+ * and files that cannot be read with an UncheckedIOException.
+ *
+ * @author Cole Hoffman
+ * @version 0.1
+ */
+final class InputFile {
+    //the amount of bytes read at a time
+    static final int CHUNK_SIZE = 1 << 16;
+    //the longest first or second line, which only hold a number or two symbols
+    private static final int MAX_HEADER_LENGTH = 256;
+
+    private final String name;
+    private final StringBuilder header = new StringBuilder();
+    //the line being read, 0 for the rule number, 1 for the symbols and 2 for the cells
+    private int line;
+    //whether the last char was a carriage return, so a line feed right after it does not end another line
+    private boolean afterReturn;
+    private int ruleNum;
+    private char falseSymbol;
+    private char trueSymbol;
+    private long[] words;
+    private long size;
+
+    private InputFile(String name, long expectedCells) {
+        this.name = name;
+        //files in a single byte charset hold a cell per byte, so the words rarely have to grow
+        words = new long[(int) Math.min(Integer.MAX_VALUE - 8, Math.max(1, (expectedCells + 63) >>> 6))];
+    }
+
+    /**
+     * Reads an input file, which is decompressed while it is read if its name ends in .gz.
+     *
+     * @param fileName The file to read.
+     * @return Returns the contents of the file.
+     * @throws UncheckedIOException     If the file cannot be read.
+     * @throws IllegalArgumentException If the file does not follow the format.
+     */
+    static InputFile read(String fileName) {
+        Path path = Paths.get(fileName);
+        //the size of a compressed file says little about the amount of cells, so the words grow as they are read
+        try (ReadableByteChannel channel = CompressedFiles.openInput(path)) {
+            long length = CompressedFiles.isCompressed(path) ? 0 : Files.size(path);
+            return read(channel, length, CHUNK_SIZE, fileName);
+        } catch (IOException e) {
+            throw new UncheckedIOException("could not read " + fileName, e);
+        }
+    }
+
+    /**
+     * Reads an input file from a channel, which is not closed.
+     *
+     * @param channel   The channel to read from.
+     * @param length    The amount of bytes the channel is expected to hold, used to size the row, or 0 if unknown.
+     * @param chunkSize The amount of bytes read at a time.
+     * @param name      The name of the input used in error messages.
+     * @return Returns the contents of the input.
+     * @throws IOException              If the channel cannot be read.
+     * @throws IllegalArgumentException If the input does not follow the format.
+     */
+    static InputFile read(ReadableByteChannel channel, long length, int chunkSize, String name) throws IOException {
+        InputFile input = new InputFile(name, length);
+        CharsetDecoder decoder = Charset.defaultCharset().newDecoder()
+                .onMalformedInput(CodingErrorAction.REPORT)
+                .onUnmappableCharacter(CodingErrorAction.REPORT);
+        ByteBuffer bytes = ByteBuffer.allocate(chunkSize);
+        CharBuffer chars = CharBuffer.allocate(chunkSize);
+
+        boolean end = false;
+        while (input.line < 3) {
+            if (!end) {
+                end = channel.read(bytes) < 0;
+            }
+            bytes.flip();
+            CoderResult result = decoder.decode(bytes, chars, end);
+            //every byte is decoded once the input has ended and the chars had room for all of them
+            boolean drained = end && !result.isOverflow();
+            if (drained && !result.isError()) {
+                result = decoder.flush(chars);
+            }
+            if (result.isError()) {
+                throw new IllegalArgumentException(name + " is not valid " + decoder.charset().name() + " text");
+            }
+            bytes.compact();
+
+            chars.flip();
+            input.accept(chars.array(), chars.position(), chars.limit());
+            chars.clear();
+            if (drained) {
+                break;
+            }
+        }
+        //the lines that are missing at the end of the input fail here
+        while (input.line < 3) {
+            input.endLine();
+        }
+        return input;
+    }
+
+    int getRuleNum() {
+        return ruleNum;
+    }
+
+    char getFalseSymbol() {
+        return falseSymbol;
+    }
+
+    char getTrueSymbol() {
+        return trueSymbol;
+    }
+
+    Generation getInitial() {
+        //the words grow by doubling when the size of the input is not known, and the generation keeps its array
+        if (words.length > Generation.wordCount((int) size)) {
+            words = Arrays.copyOf(words, Generation.wordCount((int) size));
+        }
+        return Generation.fromWords(words, (int) size);
+    }
+
+    //handles the decoded chars in [from, to), stopping after the third line
+    private void accept(char[] chars, int from, int to) {
+        for (int i = from; i < to && line < 3; i++) {
+            char c = chars[i];
+            if (c == '\n' && afterReturn) {
+                afterReturn = false;
+                continue;
+            }
+            afterReturn = c == '\r';
+            if (c == '\n' || c == '\r') {
+                endLine();
+            } else if (line < 2) {
+                if (header.length() == MAX_HEADER_LENGTH) {
+                    throw new IllegalArgumentException(name + ": line " + (line + 1) + " is too long");
+                }
+                header.append(c);
+            } else {
+                i = packCells(chars, i, to) - 1;
+            }
+        }
+    }
+
+    //packs the cells from i until the end of the line or of the chunk, returning the index after the last cell
+    private int packCells(char[] chars, int i, int to) {
+        for (; i < to; i++) {
+            char c = chars[i];
+            long bit;
+            if (c == trueSymbol) {
+                bit = 1;
+            } else if (c == falseSymbol) {
+                bit = 0;
+            } else if (c == '\n' || c == '\r') {
+                return i;
+            } else {
+                throw new IllegalArgumentException(name + ": cell " + size + " is '" + c + "', which is neither '"
+                        + falseSymbol + "' nor '" + trueSymbol + "'");
+            }
+
+            if (size == Integer.MAX_VALUE) {
+                throw new IllegalArgumentException(name + ": the initial generation has too many cells");
+            }
+            int k = (int) (size >>> 6);
+            if (k == words.length) {
+                words = Arrays.copyOf(words, (int) Math.min(Integer.MAX_VALUE - 8, 2L * words.length));
+            }
+            words[k] |= bit << size;
+            size++;
+        }
+        return i;
+    }
+
+    //finishes the current line, which is also called at the end of the input
+    private void endLine() {
+        if (line == 0) {
+            String number = header.toString().trim();
+            try {
+                ruleNum = Integer.parseInt(number);
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException(name + ": the rule number '" + number + "' is not a number", e);
+            }
+        } else if (line == 1) {
+            String[] symbols = header.toString().trim().split("\\s+");
+            if (symbols.length != 2 || symbols[0].length() != 1 || symbols[1].length() != 1) {
+                throw new IllegalArgumentException(name + ": line 2 must be the false and the true symbol, not '"
+                        + header + "'");
+            }
+            falseSymbol = symbols[0].charAt(0);
+            trueSymbol = symbols[1].charAt(0);
+            if (falseSymbol == trueSymbol) {
+                throw new IllegalArgumentException(name + ": the false and the true symbol must differ");
+            }
+        } else if (line == 2 && size == 0) {
+            throw new IllegalArgumentException(name + ": line 3 must hold the initial generation");
+        }
+        header.setLength(0);
+        line++;
+    }
+}
@@ -0,0 +1,65 @@
+import java.util.Random;
+
+/**
+ * Compares the scalar packed kernels with the vectorized kernel of VectorEngine on random generations from 1K to
+ * 100M cells. Run with {@code --add-modules jdk.incubator.vector} and the vector folder on the class path to
+ * include the vectorized kernel, otherwise only the scalar timings are printed.
+ *
+ * @author Cole Hoffman
+ * @version 0.1
+ */
+public class KernelBenchmark {
+    //the amount of cell updates to time per width, so that small widths still run long enough to measure
+    private static final long CELL_UPDATES = 2_000_000_000L;
+
+    public static void main(String[] args) throws RuleNumException {
+        Rule[] rules = {new ElementaryRule(110), new TotalisticRule(22)};
+        int[] widths = {1_000, 10_000, 100_000, 1_000_000, 10_000_000, 100_000_000};
+
+        System.out.println("vector engine available: " + VectorEngine.isAvailable());
+        System.out.printf("%-16s %12s %8s %14s %14s %8s%n",
+                "rule", "width", "steps", "scalar ns/cell", "vector ns/cell", "speedup");
+
+        for (Rule rule : rules) {
+            //warm up both paths on a mid-sized generation so that the timed runs are compiled
+            Generation warmUp = randomGeneration(100_000, new Random(0));
+            run(rule, warmUp, 2_000, false);
+            run(rule, warmUp, 2_000, true);
+
+            for (int width : widths) {
+                Generation initial = randomGeneration(width, new Random(width));
+                int steps = (int) Math.max(4, Math.min(10_000, CELL_UPDATES / width));
+
+                long start = System.nanoTime();
+                Generation scalar = run(rule, initial, steps, false);
+                double scalarTime = (System.nanoTime() - start) / ((double) width * steps);
+
+                start = System.nanoTime();
+                Generation vector = run(rule, initial, steps, true);
+                double vectorTime = (System.nanoTime() - start) / ((double) width * steps);
+
+                if (!scalar.getStates('0', '1').equals(vector.getStates('0', '1'))) {
+                    throw new IllegalStateException("kernels disagree for " + rule.getClass().getName());
+                }
+
+                System.out.printf("%-16s %12d %8d %14.4f %14.4f %8.2f%n", rule.getClass().getName() + " "
+                        + rule.getRuleNum(), width, steps, scalarTime, vectorTime, scalarTime / vectorTime);
+            }
+        }
+    }
+
+    private static Generation run(Rule rule, Generation gen, int steps, boolean vectorized) {
+        for (int i = 0; i < steps; i++) {
+            gen = vectorized ? VectorEngine.evolve(rule, gen) : rule.evolve(gen);
+        }
+        return gen;
+    }
+
+    private static Generation randomGeneration(int width, Random random) {
+        long[] words = new long[Generation.wordCount(width)];
+        for (int i = 0; i < words.length; i++) {
+            words[i] = random.nextLong();
+        }
+        return Generation.fromWords(words, width);
+    }
+}
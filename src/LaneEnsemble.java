@@ -0,0 +1,102 @@
+import java.util.Arrays;
+
+/**
+ * Evolves many small automata of the same rule at once, for ensemble statistics over different initial
+ * conditions. Each initial condition gets a bit lane, so one pass of the rule logic advances 64 automata; see
+ * LaneKernel. The generations of every lane are kept and can be read back as ordinary generations, or appended
+ * straight to the histories of the automata they came from.
+ *
+ * @author Cole Hoffman
+ * @version 0.1
+ */
+public class LaneEnsemble {
+    //the lanes are a sweep in which every lane holds the same rule
+    private final RuleSweep sweep;
+
+    /**
+     * Initializes an ensemble.
+     *
+     * @param rule     The rule of every automaton.
+     * @param initials The initial generation of every automaton, all with the same size.
+     */
+    public LaneEnsemble(Rule rule, Generation... initials) {
+        Rule[] rules = new Rule[initials.length];
+        Arrays.fill(rules, rule);
+        sweep = new RuleSweep(rules, true, initials);
+    }
+
+    /**
+     * Evolves a group of automata with the same rule and width together in lanes and appends the new generations to
+     * each automaton, exactly as if evolve(numSteps) had been called on each of them.
+     *
+     * @param numSteps The amount of steps to evolve every automaton.
+     * @param automata The automata to evolve, which must share the rule type, rule number and width.
+     */
+    public static void evolve(int numSteps, Automaton... automata) {
+        if (numSteps <= 0 || automata.length == 0) {
+            return;
+        }
+
+        Rule rule = automata[0].getRule();
+        Generation[] initials = new Generation[automata.length];
+        for (int i = 0; i < automata.length; i++) {
+            Rule other = automata[i].getRule();
+            if (other.getClass() != rule.getClass() || other.getRuleNum() != rule.getRuleNum()) {
+                throw new IllegalArgumentException("every automaton must have the same rule");
+            }
+            if (automata[i].isUnbounded() || automata[i].getBoundary() != Boundary.PERIODIC) {
+                throw new IllegalArgumentException("every automaton must evolve a circular row");
+            }
+            initials[i] = automata[i].getGeneration(automata[i].getTotalSteps());
+        }
+
+        LaneEnsemble ensemble = new LaneEnsemble(rule, initials);
+        ensemble.evolve(numSteps);
+
+        for (int lane = 0; lane < automata.length; lane++) {
+            for (int step = 1; step <= numSteps; step++) {
+                automata[lane].addGeneration(ensemble.getGeneration(lane, step));
+            }
+        }
+    }
+
+    /**
+     * Evolves every automaton the amount of steps specified further.
+     *
+     * @param numSteps The amount of steps to evolve.
+     */
+    public void evolve(int numSteps) {
+        sweep.evolve(numSteps);
+    }
+
+    /**
+     * Get the total amount of times the automata have evolved.
+     *
+     * @return Returns the number of steps.
+     */
+    public int getTotalSteps() {
+        return sweep.getTotalSteps();
+    }
+
+    /**
+     * Gets the generation of an automaton at a step.
+     *
+     * @param lane    The index of the automaton, the position of its initial generation.
+     * @param stepNum The step to get the generation of.
+     * @return Returns the generation of the automaton at the step.
+     */
+    public Generation getGeneration(int lane, int stepNum) {
+        return sweep.getGeneration(lane, stepNum);
+    }
+
+    /**
+     * Gets the amount of true cells of an automaton at a step.
+     *
+     * @param lane    The index of the automaton.
+     * @param stepNum The step to get the population of.
+     * @return Returns the population of the automaton at the step.
+     */
+    public int getPopulation(int lane, int stepNum) {
+        return sweep.getPopulation(lane, stepNum);
+    }
+}
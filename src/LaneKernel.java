@@ -0,0 +1,191 @@
+/**
+ * Evolves up to 64 independent automata at once by giving each one a bit lane: bit k of word i holds the state of
+ * cell i of the automaton in lane k. Every rule is a boolean function of its neighborhood, so one pass of bitwise
+ * logic over the words advances all the lanes, whether they hold different rules or different initial conditions.
+ * <p>
+ * Lanes may hold different rules as long as they all have the same radius. Each neighborhood code gets a mask of
+ * the lanes whose rule maps it to true, and the next state is picked out of those masks with a tree of muxes on
+ * the neighborhood cells. When every lane holds a TotalisticRule, the neighborhood totals are counted with
+ * bit-sliced adders instead and only the six total masks are needed.
+ *
+ * @author Cole Hoffman
+ * @version 0.1
+ */
+class LaneKernel {
+    //the amount of lanes in a word
+    static final int LANES = 64;
+
+    private final int radius;
+    //the lanes whose rule maps each neighborhood code to true
+    private final long[] codeMasks;
+    //the lanes whose rule maps each total to true, or null if not every lane is totalistic
+    private final long[] totalMasks;
+    //scratch space of the mux tree
+    private final long[] scratch;
+
+    /**
+     * Initializes a lane kernel.
+     *
+     * @param laneRules The rule of every lane, at most 64. Lanes past the end of the array stay false.
+     */
+    LaneKernel(Rule[] laneRules) {
+        if (laneRules.length == 0 || laneRules.length > LANES) {
+            throw new IllegalArgumentException("between 1 and " + LANES + " lanes are needed");
+        }
+
+        radius = laneRules[0].getRadius();
+        codeMasks = new long[1 << (2 * radius + 1)];
+        boolean totalistic = true;
+
+        for (int lane = 0; lane < laneRules.length; lane++) {
+            Rule rule = laneRules[lane];
+            if (rule.getRadius() != radius) {
+                throw new IllegalArgumentException("every lane needs a rule with radius " + radius);
+            }
+            totalistic &= rule instanceof TotalisticRule;
+
+            boolean[] table = rule.getTable();
+            for (int code = 0; code < table.length; code++) {
+                if (table[code]) codeMasks[code] |= 1L << lane;
+            }
+        }
+
+        if (totalistic) {
+            //the codes 0, 1, 3, 7, 15 and 31 have the totals 0 to 5
+            totalMasks = new long[6];
+            for (int total = 0; total < totalMasks.length; total++) {
+                totalMasks[total] = codeMasks[(1 << total) - 1];
+            }
+        } else {
+            totalMasks = null;
+        }
+        scratch = new long[codeMasks.length];
+    }
+
+    /**
+     * Gets the radius shared by the rules of every lane.
+     *
+     * @return Returns the neighborhood radius.
+     */
+    int getRadius() {
+        return radius;
+    }
+
+    /**
+     * Evolves every lane by one step with circular boundary conditions.
+     *
+     * @param cells The words of the current step, one word per cell.
+     * @param next  The array that receives the words of the next step, as long as cells.
+     */
+    void step(long[] cells, long[] next) {
+        int width = cells.length;
+
+        if (totalMasks != null) {
+            for (int i = 0; i < width; i++) {
+                next[i] = stepTotalistic(cells, i, width);
+            }
+        } else {
+            for (int i = 0; i < width; i++) {
+                next[i] = stepCodes(cells, i, width);
+            }
+        }
+    }
+
+    //picks the next state of cell i out of the code masks, one mux per node of a binary tree on the cells
+    private long stepCodes(long[] cells, int i, int width) {
+        System.arraycopy(codeMasks, 0, scratch, 0, codeMasks.length);
+        int length = codeMasks.length;
+
+        //the rightmost cell decides between neighboring codes, then the cell left of it, and so on
+        for (int offset = radius; offset >= -radius; offset--) {
+            long cell = cells[wrap(i + offset, width)];
+            length >>>= 1;
+            for (int c = 0; c < length; c++) {
+                scratch[c] = Rule.mux(cell, scratch[2 * c + 1], scratch[2 * c]);
+            }
+        }
+
+        return scratch[0];
+    }
+
+    //counts the totals of the radius 2 neighborhood of cell i with bit-sliced adders, see TotalisticRule
+    private long stepTotalistic(long[] cells, int i, int width) {
+        long left2 = cells[wrap(i - 2, width)];
+        long left1 = cells[wrap(i - 1, width)];
+        long center = cells[i];
+        long right1 = cells[wrap(i + 1, width)];
+        long right2 = cells[wrap(i + 2, width)];
+
+        long partial = left2 ^ left1 ^ center;
+        long carry1 = (left2 & left1) | (center & (left2 ^ left1));
+        long ones = partial ^ right1 ^ right2;
+        long carry2 = (right1 & right2) | (partial & (right1 ^ right2));
+        long twos = carry1 ^ carry2;
+        long fours = carry1 & carry2;
+
+        return Rule.mux(fours, Rule.mux(ones, totalMasks[5], totalMasks[4]),
+                Rule.mux(twos, Rule.mux(ones, totalMasks[3], totalMasks[2]),
+                        Rule.mux(ones, totalMasks[1], totalMasks[0])));
+    }
+
+    //wraps an index around the row, a branch that is only taken for the radius cells at each edge
+    private static int wrap(int idx, int width) {
+        return idx >= 0 && idx < width ? idx : Math.floorMod(idx, width);
+    }
+
+    /**
+     * Counts the true cells of every lane. The counts are kept in bit-sliced counters, slice j holding bit j of
+     * the count of every lane, so adding a word costs a short ripple of carries instead of 64 additions.
+     *
+     * @param cells The words of a step, one word per cell.
+     * @param counts The array that receives the count of every lane, at least 64 long.
+     */
+    static void countLanes(long[] cells, int[] counts) {
+        long[] slices = new long[32];
+
+        for (long carry : cells) {
+            for (int j = 0; carry != 0; j++) {
+                long overflow = slices[j] & carry;
+                slices[j] ^= carry;
+                carry = overflow;
+            }
+        }
+
+        for (int lane = 0; lane < LANES; lane++) {
+            int count = 0;
+            for (int j = 0; j < slices.length; j++) {
+                count |= (int) (slices[j] >>> lane & 1) << j;
+            }
+            counts[lane] = count;
+        }
+    }
+
+    /**
+     * Copies a generation into a lane.
+     *
+     * @param gen   The generation to copy, as wide as cells.
+     * @param cells The words of a step, one word per cell.
+     * @param lane  The lane that receives the generation.
+     */
+    static void setLane(Generation gen, long[] cells, int lane) {
+        long bit = 1L << lane;
+        for (int i = 0; i < cells.length; i++) {
+            cells[i] = gen.getState(i) ? cells[i] | bit : cells[i] & ~bit;
+        }
+    }
+
+    /**
+     * Copies a lane out into a generation.
+     *
+     * @param cells The words of a step, one word per cell.
+     * @param lane  The lane to copy.
+     * @return Returns the generation held by the lane.
+     */
+    static Generation getLane(long[] cells, int lane) {
+        long[] words = new long[Generation.wordCount(cells.length)];
+        for (int i = 0; i < cells.length; i++) {
+            words[i >>> 6] |= (cells[i] >>> lane & 1) << i;
+        }
+        return Generation.fromWords(words, cells.length);
+    }
+}
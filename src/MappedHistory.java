@@ -0,0 +1,302 @@
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+
+/**
+ * A history that keeps every step in a binary file instead of in memory. The file starts with a header holding the
+ * type of the automaton, its rule number, boundary and width, the first step and the amount of steps, followed by
+ * the generations as bit-packed rows of little endian words, 64 cells per word. Every generation is appended to the
+ * file as soon as it is added, and steps are read back through memory mapped segments of the file, so reading any
+ * step costs a single copy of its row no matter how many steps the file holds.
+ * <p>
+ * A file can be opened again with open, and Automaton.fromHistory turns it back into an automaton that continues
+ * evolving from the last row. The history holds the file open until it is closed. Only circular rows have a fixed
+ * width, so the steps of an unbounded automaton cannot be mapped.
+ *
+ * @author Cole Hoffman
+ * @version 0.1
+ */
+public final class MappedHistory extends GenerationHistory implements Closeable {
+    //"WTA1", which marks the file as a history of version 1
+    private static final int MAGIC = 0x57544131;
+    private static final int HEADER_SIZE = 64;
+    //where the fields of the header are
+    private static final int RULE_POSITION = 4;
+    private static final int WIDTH_POSITION = 8;
+    private static final int FIRST_STEP_POSITION = 12;
+    private static final int STEPS_POSITION = 16;
+    private static final int BOUNDARY_POSITION = 24;
+    private static final int TYPE_POSITION = 25;
+    private static final int MAX_TYPE_LENGTH = HEADER_SIZE - TYPE_POSITION - 1;
+    //the largest amount of bytes mapped at once
+    private static final long SEGMENT_SIZE = 1L << 30;
+
+    private final FileChannel channel;
+    private String type;
+    private int ruleNum;
+    private Boundary boundary;
+    private int width = -1;
+    private int rowBytes;
+    private int rowsPerSegment;
+    //the mapped part of every segment, null until a step of it is read, and remapped once later steps are read
+    private final ArrayList<MappedByteBuffer> segments = new ArrayList<>();
+    //the row being appended, reused for every step
+    private ByteBuffer row;
+    private Generation latest;
+
+    private MappedHistory(FileChannel channel) {
+        this.channel = channel;
+    }
+
+    /**
+     * Creates a history that writes to a new file, replacing the file if it exists. The header is written once
+     * the history is set on an automaton.
+     *
+     * @param filename The file that holds the steps.
+     * @return Returns the history.
+     * @throws UncheckedIOException If the file cannot be created.
+     */
+    static MappedHistory create(String filename) {
+        try {
+            return new MappedHistory(FileChannel.open(Paths.get(filename), StandardOpenOption.CREATE,
+                    StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.READ, StandardOpenOption.WRITE));
+        } catch (IOException e) {
+            throw new UncheckedIOException("could not create " + filename, e);
+        }
+    }
+
+    /**
+     * Opens the history in a file written by a mapped history. New steps are appended to the file, so an automaton
+     * made from it with Automaton.fromHistory keeps writing to it.
+     *
+     * @param filename The file that holds the steps.
+     * @return Returns the history, which keeps every step in the file.
+     * @throws UncheckedIOException     If the file cannot be read.
+     * @throws IllegalArgumentException If the file does not hold a history.
+     */
+    public static MappedHistory open(String filename) {
+        FileChannel channel;
+        try {
+            channel = FileChannel.open(Paths.get(filename), StandardOpenOption.READ, StandardOpenOption.WRITE);
+        } catch (IOException e) {
+            throw new UncheckedIOException("could not open " + filename, e);
+        }
+
+        MappedHistory history = new MappedHistory(channel);
+        try {
+            if (channel.size() < HEADER_SIZE) {
+                throw new IllegalArgumentException(filename + " is not a history file");
+            }
+            ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+            while (header.hasRemaining()) {
+                channel.read(header, header.position());
+            }
+            if (header.getInt(0) != MAGIC) {
+                throw new IllegalArgumentException(filename + " is not a history file");
+            }
+            int typeLength = header.get(TYPE_POSITION);
+            if (typeLength < 0 || typeLength > MAX_TYPE_LENGTH) {
+                throw new IllegalArgumentException(filename + " is not a history file");
+            }
+            byte[] type = new byte[typeLength];
+            header.get(TYPE_POSITION + 1, type);
+            int boundary = header.get(BOUNDARY_POSITION);
+            if (boundary < 0 || boundary >= Boundary.values().length) {
+                throw new IllegalArgumentException(filename + " is not a history file");
+            }
+            history.describe(new String(type, StandardCharsets.US_ASCII), header.getInt(RULE_POSITION),
+                    Boundary.values()[boundary], header.getInt(WIDTH_POSITION));
+
+            //the rows that were written completely, even if the file was not closed and its step count is stale
+            long rows = (channel.size() - HEADER_SIZE) / history.rowBytes;
+            if (rows == 0) {
+                throw new IllegalArgumentException(filename + " does not hold any steps");
+            }
+            int firstStep = header.getInt(FIRST_STEP_POSITION);
+            history.resume(firstStep, Math.toIntExact(firstStep + rows - 1));
+            history.latest = history.read(history.getLastStep());
+        } catch (IOException | RuntimeException e) {
+            try {
+                channel.close();
+            } catch (IOException suppressed) {
+                e.addSuppressed(suppressed);
+            }
+            if (e instanceof IOException) {
+                throw new UncheckedIOException("could not read " + filename, (IOException) e);
+            }
+            throw (RuntimeException) e;
+        }
+        return history;
+    }
+
+    /**
+     * Gets the simple class name of the automaton whose steps the history keeps.
+     *
+     * @return Returns the type of the automaton, or null if the history is not set on an automaton yet.
+     */
+    public String getType() {
+        return type;
+    }
+
+    /**
+     * Gets the rule number of the automaton whose steps the history keeps.
+     *
+     * @return Returns the rule number.
+     */
+    public int getRuleNum() {
+        return ruleNum;
+    }
+
+    /**
+     * Gets the boundary condition of the automaton whose steps the history keeps.
+     *
+     * @return Returns the boundary, or null if the history is not set on an automaton yet.
+     */
+    public Boundary getBoundary() {
+        return boundary;
+    }
+
+    /**
+     * Gets the width of every generation in the file.
+     *
+     * @return Returns the amount of cells of a generation, or -1 if the history is not set on an automaton yet.
+     */
+    public int getWidth() {
+        return width;
+    }
+
+    @Override
+    void attach(Automaton automaton, Generation first) {
+        if (automaton.isUnbounded()) {
+            throw new IllegalArgumentException("the generations of an unbounded automaton have no fixed width");
+        }
+        String name = automaton.getClass().getSimpleName();
+        if (name.length() > MAX_TYPE_LENGTH) {
+            throw new IllegalArgumentException("the type name " + name + " is too long");
+        }
+        describe(name, automaton.getRuleNum(), automaton.getBoundary(), first.size());
+        writeHeader(0);
+    }
+
+    @Override
+    void store(int step, Generation generation) {
+        if (type == null) {
+            throw new IllegalStateException("the history can only be written by the automaton it is set on");
+        }
+        if (generation.size() != width) {
+            throw new IllegalArgumentException("every generation must have " + width + " cells");
+        }
+
+        row.clear();
+        row.asLongBuffer().put(generation.words(), 0, rowBytes / Long.BYTES);
+        long position = position(step);
+        try {
+            while (row.hasRemaining()) {
+                position += channel.write(row, position);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("could not write step " + step, e);
+        }
+        latest = generation;
+    }
+
+    @Override
+    Generation load(int step) {
+        return step == getLastStep() ? latest : read(step);
+    }
+
+    /**
+     * Writes the amount of steps into the header and closes the file. Steps can no longer be added or read.
+     *
+     * @throws IOException If the file cannot be written.
+     */
+    @Override
+    public void close() throws IOException {
+        if (!channel.isOpen()) {
+            return;
+        }
+        try {
+            if (type != null) {
+                ByteBuffer steps = ByteBuffer.allocate(Long.BYTES).order(ByteOrder.LITTLE_ENDIAN);
+                steps.putLong(0, getLastStep() + 1L - getFirstStep());
+                channel.write(steps, STEPS_POSITION);
+            }
+        } finally {
+            segments.clear();
+            channel.close();
+        }
+    }
+
+    private void describe(String type, int ruleNum, Boundary boundary, int width) {
+        if (width < 1) {
+            throw new IllegalArgumentException("width must be positive");
+        }
+        this.type = type;
+        this.ruleNum = ruleNum;
+        this.boundary = boundary;
+        this.width = width;
+        rowBytes = Generation.wordCount(width) * Long.BYTES;
+        rowsPerSegment = (int) Math.max(1, SEGMENT_SIZE / rowBytes);
+        row = ByteBuffer.allocateDirect(rowBytes).order(ByteOrder.LITTLE_ENDIAN);
+    }
+
+    private void writeHeader(long steps) {
+        ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+        header.putInt(0, MAGIC);
+        header.putInt(RULE_POSITION, ruleNum);
+        header.putInt(WIDTH_POSITION, width);
+        header.putInt(FIRST_STEP_POSITION, getFirstStep());
+        header.putLong(STEPS_POSITION, steps);
+        header.put(BOUNDARY_POSITION, (byte) boundary.ordinal());
+        header.put(TYPE_POSITION, (byte) type.length());
+        header.put(TYPE_POSITION + 1, type.getBytes(StandardCharsets.US_ASCII));
+        try {
+            //the header is at the start of the file, so the position in the buffer is the position in the file
+            while (header.hasRemaining()) {
+                channel.write(header, header.position());
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("could not write the header", e);
+        }
+    }
+
+    //the position of the row of a step in the file
+    private long position(int step) {
+        return HEADER_SIZE + (long) (step - getFirstStep()) * rowBytes;
+    }
+
+    //reads the row of a step from its mapped segment, mapping the segment again if the step was added after it
+    private Generation read(int step) {
+        int index = step - getFirstStep();
+        int segment = index / rowsPerSegment;
+        int rowInSegment = index % rowsPerSegment;
+        while (segments.size() <= segment) {
+            segments.add(null);
+        }
+
+        MappedByteBuffer mapped = segments.get(segment);
+        if (mapped == null || mapped.capacity() < (rowInSegment + 1) * rowBytes) {
+            long segmentStart = (long) segment * rowsPerSegment;
+            long rows = Math.min(rowsPerSegment, getLastStep() + 1L - getFirstStep() - segmentStart);
+            try {
+                mapped = channel.map(FileChannel.MapMode.READ_ONLY, HEADER_SIZE + segmentStart * rowBytes,
+                        rows * rowBytes);
+            } catch (IOException e) {
+                throw new UncheckedIOException("could not read step " + step, e);
+            }
+            segments.set(segment, mapped);
+        }
+
+        long[] words = new long[rowBytes / Long.BYTES];
+        mapped.slice(rowInSegment * rowBytes, rowBytes).order(ByteOrder.LITTLE_ENDIAN).asLongBuffer().get(words);
+        return Generation.fromWords(words, width);
+    }
+}
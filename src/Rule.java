@@ -1,5 +1,8 @@
 public abstract class Rule {
     private int ruleNum;
+    //next state of every neighborhood, indexed by the neighborhood code, compiled the first time it is needed.
+    //Volatile since tiles and lanes on other threads can be the first to need it, and must see a filled table
+    private volatile boolean[] table;
 
     protected Rule(int ruleNum) {
         this.ruleNum = ruleNum;
@@ -8,41 +11,151 @@ public abstract class Rule {
 
     /**
      * Evolves the entire generation onto the next using the given rule number corresponding values.
+     * The generation is padded with the wrapped-around cells once beforehand, so the edges need no checks.
+     * When false neighborhoods stay false, only the words around the true cells are evolved, see evolveActive.
      *
      * @param gen The generation that is going to be evolved
      * @return Returns the new, evolved generation.
      */
     public Generation evolve(Generation gen) {
-        // get the current states of passed generation in the parameter
-        boolean[] generationBooleans = gen.getStates();
+        return evolve(gen, Boundary.PERIODIC);
+    }
+
+    /**
+     * Evolves the entire generation onto the next with the given boundary condition. The generation is padded
+     * with the halo cells of the boundary once beforehand, so the edges need no checks.
+     *
+     * @param gen      The generation that is going to be evolved
+     * @param boundary The states of the cells past either end of the generation.
+     * @return Returns the new, evolved generation.
+     */
+    public Generation evolve(Generation gen, Boundary boundary) {
+        //a true halo changes the cells at the ends even when every cell of the row is false
+        if (boundary != Boundary.FIXED_TRUE) {
+            Generation active = evolveActive(gen, false);
+            if (active != null) {
+                return active;
+            }
+        }
 
-        //creates a new boolean array for the coming new generation of the length of the previous gen.
-        boolean[] newGeneration = new boolean[generationBooleans.length];
+        long[] padded = gen.paddedWords(getRadius(), boundary);
 
-        //loops over the indexes and evolves the indexes into their next generation state
-        for (int i = 0; i < generationBooleans.length; i++) {
-            newGeneration[i] = evolve(getNeighborhood(i, gen));
+        //creates the packed words for the coming new generation of the length of the previous gen.
+        long[] next = new long[padded.length - 2];
+        evolveWords(padded, next, 0, next.length);
+
+        //returns a new generation created from the next words, the bits past the last cell are cleared there
+        return Generation.fromWords(next, gen.size());
+    }
+
+    /**
+     * Evolves only the active region of a generation, for rules where an all false neighborhood stays false. The
+     * cells can then only change within the radius of a true cell, so every word outside the span from the first to
+     * the last word holding a true cell, widened by one word on each side, stays false. The next generation only
+     * holds that evolved span, trimmed to its words that are not 0, and the span of a generation made this way is
+     * known without reading its words, so a few true cells in a huge row cost a few words per step instead of the
+     * whole row. Only generations that are not stored as a span, like the initial one, are scanned for their span.
+     *
+     * @param gen        The generation that is going to be evolved.
+     * @param vectorized Whether the span is evolved with VectorEngine.evolveWords or with evolveWords.
+     * @return Returns the next generation, or null if the rule turns false neighborhoods true or the span wraps
+     * around the ends of the row, in which case the whole generation has to be evolved. Since the span never
+     * reaches the halo, the result is the same for every boundary whose halo is false next to false ends.
+     */
+    Generation evolveActive(Generation gen, boolean vectorized) {
+        if (evolve(0)) {
+            return null;
+        }
+
+        int first = gen.firstActiveWord();
+        if (first < 0) {
+            return Generation.fromSpan(new long[0], 0, gen.size());
+        }
+        int last = gen.lastActiveWord();
+
+        //the words that can change, which read one more word on each side that must not wrap around
+        int from = first - 1;
+        int to = last + 2;
+        if (from < 1 || to > Generation.wordCount(gen.size()) - 1) {
+            return null;
+        }
+
+        //the copied words are padded like Generation.paddedWords, window[k + 1] being word from + k
+        long[] window = gen.copyWords(from - 1, to + 1);
+        long[] span = new long[to - from];
+        if (vectorized) {
+            VectorEngine.evolveWords(this, window, span, 0, span.length);
+        } else {
+            evolveWords(window, span, 0, span.length);
         }
+        return Generation.fromSpan(span, from, gen.size());
+    }
+
+    /**
+     * Evolves a range of words of a padded generation. The neighborhood of each cell is kept as a rolling code:
+     * moving to the next cell shifts the code left, shifts in the state of the new rightmost cell and drops the old
+     * leftmost one, so every cell costs one table lookup. Subclasses override this method with kernels that
+     * evolve whole words at once.
+     *
+     * @param padded The words of the generation with one halo word on each side, see Generation.paddedWords.
+     * @param next   The array that receives the evolved words.
+     * @param from   The first word to evolve, inclusive.
+     * @param to     The last word to evolve, exclusive.
+     */
+    void evolveWords(long[] padded, long[] next, int from, int to) {
+        int radius = getRadius();
+        int mask = (1 << (2 * radius + 1)) - 1;
+        boolean[] table = getTable();
+        int first = from << 6;
 
-        //returns a new generation created from the newGeneration array
-        return new Generation(newGeneration);
+        //start with the cells left of the first cell and the first cell, missing only the rightmost cell
+        int code = 0;
+        for (int i = first - radius; i < first + radius; i++) {
+            code = code << 1 | paddedState(padded, i);
+        }
 
+        //loops over the indexes and evolves the indexes into their next generation state
+        for (int i = first; i < to << 6; i++) {
+            code = (code << 1 | paddedState(padded, i + radius)) & mask;
+            if (table[code]) {
+                next[i >>> 6] |= 1L << i;
+            }
+        }
+    }
+
+    //gets the state of cell idx of a generation padded with Generation.paddedWords as 0 or 1
+    private static int paddedState(long[] padded, int idx) {
+        int pos = idx + Generation.WORD_SIZE;
+        return (int) (padded[pos >>> 6] >>> pos) & 1;
     }
 
     /**
-     * Gets the neighborhood of the passed index. The neighborhood includes the left and right values in relation
-     * to the index that is given, as well as the index value itself.
+     * Gets the neighborhood of the passed index. The neighborhood includes the radius values on the left and right
+     * in relation to the index that is given, as well as the index value itself, using circular boundary
+     * conditions. Every rule has this neighborhood: the compiled table and the kernels only ever read these
+     * 2 * getRadius() + 1 cells, so rules cannot choose a neighborhood of another shape.
      *
      * @param idx The index to get the neighborhood of.
      * @param gen The generation that is to be used for the neighborhood.
      * @return Returns a boolean array that contains the neighborhood that is found.
      */
     // gets the neighborhood given a specific index
-    public abstract boolean[] getNeighborhood(int idx, Generation gen);
+    public final boolean[] getNeighborhood(int idx, Generation gen) {
+        int radius = getRadius();
+        boolean[] neighborhood = new boolean[2 * radius + 1];
+
+        for (int i = 0; i < neighborhood.length; i++) {
+            //floorMod wraps indexes before the first and after the last cell, even in rows shorter than the radius
+            neighborhood[i] = gen.getState(Math.floorMod(idx - radius + i, gen.size()));
+        }
+
+        return neighborhood;
+    }
 
 
     /**
-     * Evolves one index given the neighborhood instead of the entire generation.
+     * Evolves one index given the neighborhood instead of the entire generation. The neighborhood is always the
+     * 2 * getRadius() + 1 cells of getNeighborhood, the leftmost cell first.
      *
      * @param neighborhood The neighborhood that is going to be used to determine the next generation of the middle index.
      * @return Returns a boolean value which signifies the evolved state of the index.
@@ -64,4 +177,100 @@ public abstract class Rule {
 
     public abstract String getRuleTable(char falseSymbol, char trueSymbol);
 
+    /**
+     * Gets the neighborhood radius, the amount of cells on each side of a cell that decide its next state.
+     * Rules with a radius other than 1 must override this method, since evolve(boolean[]) is only ever given the
+     * neighborhood of this radius, see getNeighborhood.
+     *
+     * @return Returns the radius of the neighborhood.
+     */
+    public int getRadius() {
+        return 1;
+    }
+
+    /**
+     * Evolves one index given the code of its neighborhood. The code is the neighborhood read as a binary number,
+     * the leftmost cell being the highest bit, so for an elementary rule the neighborhood 110 has the code 6.
+     *
+     * @param code The neighborhood code, between 0 and 2^(2 * radius + 1) - 1.
+     * @return Returns a boolean value which signifies the evolved state of the index.
+     */
+    public boolean evolve(int code) {
+        return getTable()[code];
+    }
+
+    /**
+     * Gets the compiled rule table, compiling it first if this has not been done yet.
+     *
+     * @return Returns the next state of every neighborhood, indexed by the neighborhood code.
+     */
+    protected final boolean[] getTable() {
+        boolean[] table = this.table;
+        if (table == null) {
+            //threads that compile it at the same time get equal tables, so either one can be kept
+            table = compileTable();
+            this.table = table;
+        }
+        return table;
+    }
+
+    /**
+     * Compiles the rule into a table indexed by neighborhood code. The default implementation asks
+     * evolve(boolean[]) for every possible neighborhood once, subclasses that can derive the table from the rule
+     * number directly override it.
+     *
+     * @return Returns the next state of every neighborhood, indexed by the neighborhood code.
+     */
+    protected boolean[] compileTable() {
+        int width = 2 * getRadius() + 1;
+        boolean[] compiled = new boolean[1 << width];
+
+        for (int code = 0; code < compiled.length; code++) {
+            compiled[code] = evolve(decode(code, width));
+        }
+
+        return compiled;
+    }
+
+    /**
+     * Gets the code of a neighborhood, the neighborhood read as a binary number with the leftmost cell highest.
+     *
+     * @param neighborhood The states of the neighborhood.
+     * @return Returns the neighborhood code.
+     */
+    protected static int encode(boolean[] neighborhood) {
+        int code = 0;
+        for (boolean b : neighborhood) {
+            code = code << 1 | (b ? 1 : 0);
+        }
+        return code;
+    }
+
+    /**
+     * Gets the neighborhood with the given code.
+     *
+     * @param code  The neighborhood code.
+     * @param width The amount of cells in the neighborhood.
+     * @return Returns the states of the neighborhood.
+     */
+    protected static boolean[] decode(int code, int width) {
+        boolean[] neighborhood = new boolean[width];
+        for (int i = 0; i < width; i++) {
+            neighborhood[i] = (code >>> (width - 1 - i) & 1) == 1;
+        }
+        return neighborhood;
+    }
+
+    /**
+     * Selects between two words bit by bit, used by the word-parallel kernels to evaluate rules without branches.
+     *
+     * @param select  The word that decides which input each bit is taken from.
+     * @param ifTrue  The bits to use where select is 1.
+     * @param ifFalse The bits to use where select is 0.
+     * @return Returns the selected bits.
+     */
+    protected static long mux(long select, long ifTrue, long ifFalse) {
+        return ifFalse ^ (select & (ifTrue ^ ifFalse));
+    }
+
 }
@@ -0,0 +1,195 @@
+import java.util.ArrayList;
+
+/**
+ * Evolves many rules at once by giving each rule a bit lane of the same words, see LaneKernel. A sweep of all 256
+ * elementary rules is four words per cell, and all 64 totalistic rules fit in one, so every step reads each
+ * neighborhood once for all the rules instead of once per rule.
+ * <p>
+ * The population (amount of true cells) of every rule is recorded at every step as a summary. The full history of
+ * every rule can be kept as well, at the cost of one word per cell per 64 rules per step.
+ *
+ * @author Cole Hoffman
+ * @version 0.1
+ */
+public class RuleSweep {
+    private final Rule[] rules;
+    private final int width;
+    //one kernel and one word per cell for every group of 64 rules
+    private final LaneKernel[] kernels;
+    private long[][] cells;
+    private long[][] next;
+    //the words of every group at every step, or null if the history is not kept
+    private final ArrayList<long[][]> history;
+    //the population of every rule at every step
+    private final ArrayList<int[]> populations = new ArrayList<>();
+
+    /**
+     * Initializes a sweep.
+     *
+     * @param rules       The rules to evolve, which must all have the same radius.
+     * @param keepHistory Whether every generation of every rule is kept, or only the populations.
+     * @param initials    Either one generation that every rule starts from, or one generation per rule. All of
+     *                    them must have the same size.
+     */
+    public RuleSweep(Rule[] rules, boolean keepHistory, Generation... initials) {
+        if (initials.length != 1 && initials.length != rules.length) {
+            throw new IllegalArgumentException("expected 1 or " + rules.length + " initial generations");
+        }
+
+        this.rules = rules.clone();
+        width = initials[0].size();
+        int groups = (rules.length + LaneKernel.LANES - 1) / LaneKernel.LANES;
+        kernels = new LaneKernel[groups];
+        cells = new long[groups][width];
+        next = new long[groups][width];
+
+        for (int group = 0; group < groups; group++) {
+            int from = group * LaneKernel.LANES;
+            Rule[] laneRules = new Rule[Math.min(LaneKernel.LANES, rules.length - from)];
+            System.arraycopy(rules, from, laneRules, 0, laneRules.length);
+            kernels[group] = new LaneKernel(laneRules);
+
+            for (int lane = 0; lane < laneRules.length; lane++) {
+                Generation initial = initials.length == 1 ? initials[0] : initials[from + lane];
+                if (initial.size() != width) {
+                    throw new IllegalArgumentException("every initial generation must have " + width + " cells");
+                }
+                LaneKernel.setLane(initial, cells[group], lane);
+            }
+        }
+
+        history = keepHistory ? new ArrayList<>() : null;
+        record();
+    }
+
+    /**
+     * Creates a sweep of every elementary rule, 0 to 255.
+     *
+     * @param keepHistory Whether every generation of every rule is kept, or only the populations.
+     * @param initial     The generation that every rule starts from.
+     * @return Returns the sweep, rule number i being rule index i.
+     */
+    public static RuleSweep elementary(boolean keepHistory, Generation initial) {
+        Rule[] rules = new Rule[256];
+        try {
+            for (int ruleNum = 0; ruleNum < rules.length; ruleNum++) {
+                rules[ruleNum] = new ElementaryRule(ruleNum);
+            }
+        } catch (RuleNumException e) {
+            throw new IllegalStateException(e);
+        }
+        return new RuleSweep(rules, keepHistory, initial);
+    }
+
+    /**
+     * Creates a sweep of every totalistic rule, 0 to 63.
+     *
+     * @param keepHistory Whether every generation of every rule is kept, or only the populations.
+     * @param initial     The generation that every rule starts from.
+     * @return Returns the sweep, rule number i being rule index i.
+     */
+    public static RuleSweep totalistic(boolean keepHistory, Generation initial) {
+        Rule[] rules = new Rule[64];
+        try {
+            for (int ruleNum = 0; ruleNum < rules.length; ruleNum++) {
+                rules[ruleNum] = new TotalisticRule(ruleNum);
+            }
+        } catch (RuleNumException e) {
+            throw new IllegalStateException(e);
+        }
+        return new RuleSweep(rules, keepHistory, initial);
+    }
+
+    /**
+     * Evolves every rule the amount of steps specified further.
+     *
+     * @param numSteps The amount of steps to evolve.
+     */
+    public void evolve(int numSteps) {
+        for (int i = 0; i < numSteps; i++) {
+            for (int group = 0; group < kernels.length; group++) {
+                kernels[group].step(cells[group], next[group]);
+            }
+
+            //swap the buffers, the history keeps its own copies
+            long[][] swap = cells;
+            cells = next;
+            next = swap;
+            record();
+        }
+    }
+
+    //stores the populations and, if the history is kept, the words of the current step
+    private void record() {
+        int[] population = new int[rules.length];
+        int[] counts = new int[LaneKernel.LANES];
+        for (int group = 0; group < kernels.length; group++) {
+            LaneKernel.countLanes(cells[group], counts);
+            int from = group * LaneKernel.LANES;
+            System.arraycopy(counts, 0, population, from, Math.min(LaneKernel.LANES, rules.length - from));
+        }
+        populations.add(population);
+
+        if (history != null) {
+            long[][] copy = new long[cells.length][];
+            for (int group = 0; group < cells.length; group++) {
+                copy[group] = cells[group].clone();
+            }
+            history.add(copy);
+        }
+    }
+
+    /**
+     * Gets the rule at an index of the sweep.
+     *
+     * @param ruleIdx The index of the rule.
+     * @return Returns the rule.
+     */
+    public Rule getRule(int ruleIdx) {
+        return rules[ruleIdx];
+    }
+
+    /**
+     * Get the total amount of times the rules have evolved.
+     *
+     * @return Returns the number of steps.
+     */
+    public int getTotalSteps() {
+        return populations.size() - 1;
+    }
+
+    /**
+     * Gets the current generation of a rule.
+     *
+     * @param ruleIdx The index of the rule.
+     * @return Returns the generation of the rule after getTotalSteps() steps.
+     */
+    public Generation getGeneration(int ruleIdx) {
+        return LaneKernel.getLane(cells[ruleIdx / LaneKernel.LANES], ruleIdx % LaneKernel.LANES);
+    }
+
+    /**
+     * Gets the generation of a rule at an earlier step. Only available when the history is kept.
+     *
+     * @param ruleIdx The index of the rule.
+     * @param stepNum The step to get the generation of.
+     * @return Returns the generation of the rule at the step.
+     */
+    public Generation getGeneration(int ruleIdx, int stepNum) {
+        if (history == null) {
+            throw new IllegalStateException("the history of the sweep is not kept");
+        }
+        return LaneKernel.getLane(history.get(stepNum)[ruleIdx / LaneKernel.LANES], ruleIdx % LaneKernel.LANES);
+    }
+
+    /**
+     * Gets the amount of true cells of a rule at a step.
+     *
+     * @param ruleIdx The index of the rule.
+     * @param stepNum The step to get the population of.
+     * @return Returns the population of the rule at the step.
+     */
+    public int getPopulation(int ruleIdx, int stepNum) {
+        return populations.get(stepNum)[ruleIdx];
+    }
+}
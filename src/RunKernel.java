@@ -0,0 +1,165 @@
+import java.util.Arrays;
+
+/**
+ * Evolves run-length encoded generations, see Generation.fromToggles. A cell whose whole neighborhood has the same
+ * state only depends on that state, so a uniform stretch of cells becomes a uniform stretch of the rule's output for
+ * an all false or all true neighborhood. Only the cells within the radius of a toggle have to be evaluated, which
+ * makes a step cost a few lookups per toggle no matter how wide the generation is.
+ * <p>
+ * Generations switch between words and runs by density with some hysteresis: a generation in words is worth
+ * encoding once it has fewer than size / SPARSE_RATIO toggles, and an evolved generation goes back to words once
+ * it has more than size / DENSE_RATIO toggles.
+ *
+ * @author Cole Hoffman
+ * @version 0.1
+ */
+final class RunKernel {
+    //generations in words with fewer toggles than size / SPARSE_RATIO are encoded as runs
+    static final int SPARSE_RATIO = 1024;
+    //evolved generations with more toggles than size / DENSE_RATIO are stored in words again
+    static final int DENSE_RATIO = 256;
+
+    private RunKernel() {
+    }
+
+    /**
+     * Checks if a generation has few enough toggles to be evolved as runs.
+     *
+     * @param gen The generation to check.
+     * @return Returns true if the generation is sparse enough for the run kernel.
+     */
+    static boolean isSparse(Generation gen) {
+        return (long) gen.countToggles() * SPARSE_RATIO < gen.size();
+    }
+
+    /**
+     * Evolves a generation one step by only evaluating the cells near a toggle. Generations whose toggles are too
+     * close together for this to pay off are evolved by the rule's own kernel instead.
+     *
+     * @param rule The rule to evolve with.
+     * @param gen  The generation to evolve, usually run-length encoded.
+     * @return Returns the next generation, run-length encoded unless it has become dense.
+     */
+    static Generation evolve(Rule rule, Generation gen) {
+        int size = gen.size();
+        int radius = rule.getRadius();
+        int width = 2 * radius + 1;
+        int[] toggles = gen.toggles();
+        boolean[] uniform = {rule.evolve(0), rule.evolve((1 << width) - 1)};
+
+        //the cells where the state differs from the cell before them going around the circle, which differ from
+        //the toggles at cell 0 since the cell before it is the last cell rather than false
+        boolean first = toggles.length > 0 && toggles[0] == 0;
+        boolean last = (toggles.length & 1) == 1;
+        int skip = first ? 1 : 0;
+        int[] boundaries = new int[toggles.length - skip + (first != last ? 1 : 0)];
+        System.arraycopy(toggles, skip, boundaries, boundaries.length - (toggles.length - skip),
+                toggles.length - skip);
+
+        //a uniform row stays uniform
+        if (boundaries.length == 0) {
+            return Generation.fromToggles(uniform[first ? 1 : 0] ? new int[]{0} : new int[0], size);
+        }
+        if ((long) boundaries.length * 2 * radius * 8 >= size) {
+            return rule.evolve(gen.toWords());
+        }
+
+        //the cells in [b - radius, b + radius) of every boundary b read both sides of it, ranges that stick out of
+        //either end continue at the other end
+        long[] pieces = new long[2 * boundaries.length];
+        int count = 0;
+        for (int b : boundaries) {
+            int from = b - radius;
+            int to = b + radius;
+            if (from < 0) {
+                pieces[count++] = range(from + size, size);
+                pieces[count++] = range(0, to);
+            } else if (to > size) {
+                pieces[count++] = range(from, size);
+                pieces[count++] = range(0, to - size);
+            } else {
+                pieces[count++] = range(from, to);
+            }
+        }
+        Arrays.sort(pieces, 0, count);
+
+        //merge the overlapping ranges, ranges[2k] and ranges[2k + 1] being the start and end of range k
+        int[] ranges = new int[2 * count];
+        int merged = 0;
+        for (int i = 0; i < count; i++) {
+            int from = (int) (pieces[i] >>> 32);
+            int to = (int) pieces[i];
+            if (merged > 0 && from <= ranges[merged - 1]) {
+                ranges[merged - 1] = Math.max(ranges[merged - 1], to);
+            } else {
+                ranges[merged++] = from;
+                ranges[merged++] = to;
+            }
+        }
+        count = merged;
+
+        //walk around the row, the cells between ranges all have the same state as the cell before them
+        Output output = new Output(toggles.length + 2 * count);
+        int pos = 0;
+        int mask = (1 << width) - 1;
+        for (int r = 0; r < count; r += 2) {
+            if (pos < ranges[r]) {
+                output.add(pos, uniform[state(toggles, pos) ? 1 : 0]);
+            }
+
+            int code = 0;
+            for (int j = ranges[r] - radius; j <= ranges[r] + radius; j++) {
+                code = code << 1 | (state(toggles, Math.floorMod(j, size)) ? 1 : 0);
+            }
+            for (int i = ranges[r]; i < ranges[r + 1]; i++) {
+                output.add(i, rule.evolve(code));
+                code = (code << 1 | (state(toggles, Math.floorMod(i + radius + 1, size)) ? 1 : 0)) & mask;
+            }
+            pos = ranges[r + 1];
+        }
+        if (pos < size) {
+            output.add(pos, uniform[state(toggles, pos) ? 1 : 0]);
+        }
+
+        Generation next = Generation.fromToggles(output.toggles(), size);
+        return (long) output.count * DENSE_RATIO > size ? next.toWords() : next;
+    }
+
+    //packs a range so that sorting the packed ranges sorts them by their start
+    private static long range(int from, int to) {
+        return (long) from << 32 | to;
+    }
+
+    //the state of a cell, true after an odd amount of toggles at or before it
+    private static boolean state(int[] toggles, int idx) {
+        int found = Arrays.binarySearch(toggles, idx);
+        int count = found >= 0 ? found + 1 : -found - 1;
+        return (count & 1) == 1;
+    }
+
+    //collects the toggles of the next generation from the states of consecutive cells
+    private static final class Output {
+        private int[] toggles;
+        private int count;
+        private boolean state;
+
+        Output(int capacity) {
+            toggles = new int[Math.max(capacity, 4)];
+        }
+
+        //the cells from idx until the next added cell have the given state
+        void add(int idx, boolean next) {
+            if (next != state) {
+                if (count == toggles.length) {
+                    toggles = Arrays.copyOf(toggles, count * 2);
+                }
+                toggles[count++] = idx;
+                state = next;
+            }
+        }
+
+        int[] toggles() {
+            return Arrays.copyOf(toggles, count);
+        }
+    }
+}
@@ -0,0 +1,224 @@
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteOrder;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Turns packed cells into the bytes of their symbols eight cells at a time. A table holds the eight symbol bytes of
+ * every possible byte of cells, so a byte of a word becomes a single long that is stored with one write. Many rows
+ * are encoded in parallel on a ForkJoinPool: every row gets its place in the output before the encoding starts,
+ * so the tasks write disjoint ranges of one array and the rows end up in order without any copying.
+ * <p>
+ * The symbols must be single byte characters, which are encoded as ISO-8859-1. Strings made from the bytes with
+ * that charset are stored with a byte per character, so making one is a single copy.
+ *
+ * @author Cole Hoffman
+ * @version 0.1
+ */
+final class TextEncoder {
+    //encodings of fewer bytes than this are done on the calling thread, and tasks split until they are this small
+    static final int PARALLEL_THRESHOLD = 1 << 20;
+    //stores a long into a byte array as eight bytes, the lowest byte first
+    private static final VarHandle LONGS = MethodHandles.byteArrayViewVarHandle(long[].class, ByteOrder.LITTLE_ENDIAN);
+    //the encoder that was made last, which is usually the one needed next
+    private static volatile TextEncoder last;
+
+    private final char falseSymbol;
+    private final char trueSymbol;
+    //table[b] holds the symbols of the eight cells of b, the symbol of the lowest bit in the lowest byte
+    private final long[] table = new long[256];
+
+    private TextEncoder(char falseSymbol, char trueSymbol) {
+        this.falseSymbol = falseSymbol;
+        this.trueSymbol = trueSymbol;
+        for (int b = 0; b < 256; b++) {
+            long symbols = 0;
+            for (int i = 0; i < 8; i++) {
+                symbols |= (long) ((b >>> i & 1) == 1 ? trueSymbol : falseSymbol) << (8 * i);
+            }
+            table[b] = symbols;
+        }
+    }
+
+    /**
+     * Gets an encoder for two symbols.
+     *
+     * @param falseSymbol The symbol of false cells.
+     * @param trueSymbol  The symbol of true cells.
+     * @return Returns the encoder, or null if either symbol is not a single byte.
+     */
+    static TextEncoder of(char falseSymbol, char trueSymbol) {
+        if (falseSymbol > 0xff || trueSymbol > 0xff) {
+            return null;
+        }
+        TextEncoder encoder = last;
+        if (encoder == null || encoder.falseSymbol != falseSymbol || encoder.trueSymbol != trueSymbol) {
+            encoder = new TextEncoder(falseSymbol, trueSymbol);
+            last = encoder;
+        }
+        return encoder;
+    }
+
+    /**
+     * Gets the amount of symbols of a row aligned on [left, right), see Automaton.toString.
+     *
+     * @param generation The generation of the row.
+     * @param left       The position of the first cell of the row, at most the offset of the generation.
+     * @param right      The position after the last cell of the row, or anything up to the end of the generation
+     *                   to encode only its own cells.
+     * @return Returns the length of the row.
+     */
+    static long rowLength(Generation generation, long left, long right) {
+        long end = (long) generation.getOffset() + generation.size();
+        return Math.max(right, end) - Math.min(left, generation.getOffset());
+    }
+
+    /**
+     * Encodes the cells of a generation.
+     *
+     * @param words The packed cells.
+     * @param size  The amount of cells.
+     * @param dest  The array that receives a byte per cell.
+     * @param pos   The index in dest of the first cell.
+     */
+    void encodeCells(long[] words, int size, byte[] dest, int pos) {
+        encodeCells(words, 0, size, dest, pos);
+    }
+
+    /**
+     * Encodes a range of cells.
+     *
+     * @param words The packed cells.
+     * @param from  The first cell to encode, a multiple of 8.
+     * @param to    The cell after the last one to encode.
+     * @param dest  The array that receives a byte per cell.
+     * @param pos   The index in dest of cell from.
+     */
+    void encodeCells(long[] words, int from, int to, byte[] dest, int pos) {
+        int bytes = (to - from) >>> 3;
+        for (int b = 0; b < bytes; b++) {
+            int cell = from + (b << 3);
+            int cells = (int) (words[cell >>> 6] >>> cell) & 0xff;
+            LONGS.set(dest, pos + (b << 3), table[cells]);
+        }
+        for (int i = from + (bytes << 3); i < to; i++) {
+            dest[pos + i - from] = (byte) ((words[i >>> 6] >>> i & 1) == 1 ? trueSymbol : falseSymbol);
+        }
+    }
+
+    /**
+     * Encodes a row, with background cells on either side of the generation to fill [left, right).
+     *
+     * @param generation The generation of the row.
+     * @param left       The position of the first cell of the row, see rowLength.
+     * @param right      The position after the last cell of the row, see rowLength.
+     * @param dest       The array that receives the row.
+     * @param pos        The index in dest of the first symbol.
+     * @return Returns the index in dest after the row.
+     */
+    int encodeRow(Generation generation, long left, long right, byte[] dest, int pos) {
+        byte background = (byte) (generation.getBackground() ? trueSymbol : falseSymbol);
+        int before = (int) Math.max(0, generation.getOffset() - left);
+        int after = (int) Math.max(0, right - ((long) generation.getOffset() + generation.size()));
+
+        for (int i = 0; i < before; i++) {
+            dest[pos++] = background;
+        }
+        encodeCells(generation.words(), generation.size(), dest, pos);
+        pos += generation.size();
+        for (int i = 0; i < after; i++) {
+            dest[pos++] = background;
+        }
+        return pos;
+    }
+
+    /**
+     * Encodes rows with a separator between them, in parallel when they are long enough.
+     *
+     * @param rows      The generations of the rows.
+     * @param from      The first row to encode.
+     * @param to        The row after the last one to encode.
+     * @param left      The position of the first cell of every row, see rowLength.
+     * @param right     The position after the last cell of every row, see rowLength.
+     * @param separator The bytes between two rows, which are also put before the first row if leading is true.
+     * @param leading   Whether the first row follows earlier rows and needs a separator before it.
+     * @param pool      The pool that encodes the rows.
+     * @return Returns the encoded rows.
+     */
+    byte[] encodeRows(Generation[] rows, int from, int to, long left, long right, byte[] separator,
+                      boolean leading, ForkJoinPool pool) {
+        //where every row starts, so the tasks know where to write without waiting for the rows before them
+        int[] starts = new int[to - from + 1];
+        long length = 0;
+        for (int r = from; r < to; r++) {
+            if (r > from || leading) {
+                length += separator.length;
+            }
+            starts[r - from] = (int) length;
+            length += rowLength(rows[r], left, right);
+            if (length > Integer.MAX_VALUE - 8) {
+                throw new IllegalArgumentException("the rows are too long to be encoded at once");
+            }
+        }
+        starts[to - from] = (int) length;
+
+        byte[] dest = new byte[(int) length];
+        Rows task = new Rows(this, rows, from, to, left, right, separator, starts, from, dest);
+        if (length < PARALLEL_THRESHOLD) {
+            task.compute();
+        } else {
+            pool.invoke(task);
+        }
+        return dest;
+    }
+
+    //encodes the rows [from, to) with the separators before them, splitting in half while they are long
+    private static final class Rows extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final TextEncoder encoder;
+        private final Generation[] rows;
+        private final int from;
+        private final int to;
+        private final long left;
+        private final long right;
+        private final byte[] separator;
+        private final int[] starts;
+        //the row whose start is starts[0]
+        private final int first;
+        private final byte[] dest;
+
+        Rows(TextEncoder encoder, Generation[] rows, int from, int to, long left, long right, byte[] separator,
+             int[] starts, int first, byte[] dest) {
+            this.encoder = encoder;
+            this.rows = rows;
+            this.from = from;
+            this.to = to;
+            this.left = left;
+            this.right = right;
+            this.separator = separator;
+            this.starts = starts;
+            this.first = first;
+            this.dest = dest;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from > 1 && starts[to - first] - starts[from - first] > PARALLEL_THRESHOLD) {
+                int mid = (from + to) >>> 1;
+                invokeAll(new Rows(encoder, rows, from, mid, left, right, separator, starts, first, dest),
+                        new Rows(encoder, rows, mid, to, left, right, separator, starts, first, dest));
+                return;
+            }
+
+            for (int r = from; r < to; r++) {
+                int pos = starts[r - first];
+                if (r > first || pos > 0) {
+                    System.arraycopy(separator, 0, dest, pos - separator.length, separator.length);
+                }
+                encoder.encodeRow(rows[r], left, right, dest, pos);
+            }
+        }
+    }
+}
@@ -0,0 +1,121 @@
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Evolves a single wide generation on a ForkJoinPool by splitting its words into tiles. The generation is padded
+ * with the halo of its boundary once, and every tile reads the cells just outside its range from the same padded copy,
+ * so the tiles borrow their halo cells from their neighbors without copying anything and the result is
+ * bit-identical to evolving the generation on one thread.
+ *
+ * @author Cole Hoffman
+ * @version 0.1
+ */
+public class TiledEvolver {
+    //the pool that runs the tiles
+    private final ForkJoinPool pool;
+    //the amount of words evolved by a single task
+    private final int tileWords;
+    //generations with fewer cells than this are evolved on the calling thread
+    private final int threshold;
+
+    /**
+     * Initializes a tiled evolver.
+     *
+     * @param pool      The pool that runs the tiles.
+     * @param tileSize  The amount of cells evolved by a single task, rounded up to a whole amount of words.
+     * @param threshold Generations with fewer cells than this are evolved on the calling thread.
+     */
+    public TiledEvolver(ForkJoinPool pool, int tileSize, int threshold) {
+        if (pool == null) {
+            throw new IllegalArgumentException("pool cannot be null");
+        }
+        if (tileSize <= 0) {
+            throw new IllegalArgumentException("tileSize must be positive");
+        }
+
+        this.pool = pool;
+        this.tileWords = Generation.wordCount(tileSize);
+        this.threshold = threshold;
+    }
+
+    /**
+     * Evolves a generation, in tiles if it has at least threshold cells.
+     *
+     * @param rule       The rule to evolve with.
+     * @param gen        The generation that is going to be evolved.
+     * @param vectorized Whether the tiles use the kernel of VectorEngine.
+     * @return Returns the new, evolved generation.
+     */
+    public Generation evolve(Rule rule, Generation gen, boolean vectorized) {
+        return evolve(rule, gen, vectorized, Boundary.PERIODIC);
+    }
+
+    /**
+     * Evolves a generation with the given boundary condition, in tiles if it has at least threshold cells. Only the
+     * words around the true cells are evolved when the rest of the row stays false, like in Rule.evolve.
+     *
+     * @param rule       The rule to evolve with.
+     * @param gen        The generation that is going to be evolved.
+     * @param vectorized Whether the tiles use the kernel of VectorEngine.
+     * @param boundary   The states of the cells past either end of the generation.
+     * @return Returns the new, evolved generation.
+     */
+    public Generation evolve(Rule rule, Generation gen, boolean vectorized, Boundary boundary) {
+        if (gen.size() < threshold) {
+            return vectorized ? VectorEngine.evolve(rule, gen, boundary) : rule.evolve(gen, boundary);
+        }
+        //a few true cells in a wide row are evolved on their own, see Rule.evolveActive
+        if (boundary != Boundary.FIXED_TRUE) {
+            Generation active = rule.evolveActive(gen, vectorized);
+            if (active != null) {
+                return active;
+            }
+        }
+
+        long[] padded = gen.paddedWords(rule.getRadius(), boundary);
+        long[] next = new long[padded.length - 2];
+        pool.invoke(new Tile(rule, padded, next, 0, next.length, vectorized, tileWords));
+
+        return Generation.fromWords(next, gen.size());
+    }
+
+    //evolves the words [from, to), splitting in half until the range fits in one tile
+    private static final class Tile extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final Rule rule;
+        private final long[] padded;
+        private final long[] next;
+        private final int from;
+        private final int to;
+        private final boolean vectorized;
+        private final int tileWords;
+
+        Tile(Rule rule, long[] padded, long[] next, int from, int to, boolean vectorized, int tileWords) {
+            this.rule = rule;
+            this.padded = padded;
+            this.next = next;
+            this.from = from;
+            this.to = to;
+            this.vectorized = vectorized;
+            this.tileWords = tileWords;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= tileWords) {
+                //every tile writes its own words of next, so the tiles never write to the same word
+                if (vectorized) {
+                    VectorEngine.evolveWords(rule, padded, next, from, to);
+                } else {
+                    rule.evolveWords(padded, next, from, to);
+                }
+                return;
+            }
+
+            int middle = (from + to) >>> 1;
+            invokeAll(new Tile(rule, padded, next, from, middle, vectorized, tileWords),
+                    new Tile(rule, padded, next, middle, to, vectorized, tileWords));
+        }
+    }
+}
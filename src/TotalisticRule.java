@@ -1,96 +1,96 @@
-import java.util.Arrays;
-import java.util.HashMap;
-
 public class TotalisticRule extends Rule {
     private final boolean[] ruleStates = new boolean[6];
-    private final HashMap<String, Boolean> binaryValues = new HashMap<>();
-    private static final int TRUE = 1;
-    private static final int FALSE = 0;
+    //one mask per neighborhood total 0 to 5, all ones if the rule maps it to true
+    private final long[] totals = new long[6];
 
     protected TotalisticRule(int ruleNum) throws RuleNumException {
         super(ruleNum);
         if (getRuleNum() > 63 || getRuleNum() < 0) throw new RuleNumException(0, 63);
         else {
             fillRuleStates();
-            fillHashmap();
-        }
-    }
-
-
-    private void fillRuleStates() {
-        //padding code courtesy of Tina Nguyen.
-        char[] charList = String.format("%06d", Integer.parseInt(Integer.toBinaryString(getRuleNum()))).toCharArray();
-
-        for (int i = 0; i < charList.length; i++) {
-            if (charList[i] == '1') ruleStates[i] = true;
-            else ruleStates[i] = false;
+            fillTotals();
+            //compile the table now so that evolve(int) never has to
+            getTable();
         }
     }
 
-    private void fillHashmap() {
-        binaryValues.put("5", ruleStates[0]);
-        binaryValues.put("4", ruleStates[1]);
-        binaryValues.put("3", ruleStates[2]);
-        binaryValues.put("2", ruleStates[3]);
-        binaryValues.put("1", ruleStates[4]);
-        binaryValues.put("0", ruleStates[5]);
+    @Override
+    public int getRadius() {
+        return 2;
     }
 
-
     @Override
-    public boolean evolve(boolean[] neighborhood) {
-        int trueAmount = 0;
-        for (boolean b : neighborhood) {
-            if (b) trueAmount += 1;
+    protected boolean[] compileTable() {
+        boolean[] table = new boolean[32];
+        for (int code = 0; code < table.length; code++) {
+            //the next state only depends on the total, the amount of 1 bits in the code
+            table[code] = (getRuleNum() >>> Integer.bitCount(code) & 1) == 1;
         }
-        return (ruleStates[5 - trueAmount]);
+        return table;
     }
 
-    @Override
-    public boolean[] getNeighborhood(int idx, Generation gen) {
-        boolean[] neighborHood = new boolean[5];
-        boolean[] genStates = gen.getStates();
-        int length = gen.size();
+    private void fillRuleStates() {
+        //the rule table lists the totals from 5 down to 0
+        for (int i = 0; i < ruleStates.length; i++) {
+            ruleStates[i] = (getRuleNum() >>> (5 - i) & 1) == 1;
+        }
+    }
 
-        if(gen.size() == 1) {
-            Arrays.fill(neighborHood, genStates[0]);
-        } else {
-            setLeft(idx, genStates, neighborHood, length);
-            neighborHood[2] = genStates[idx];
-            setRight(idx, genStates, neighborHood, length);
+    private void fillTotals() {
+        for (int i = 0; i < totals.length; i++) {
+            //bit i of the rule number is the next state of a neighborhood with a total of i
+            if ((getRuleNum() >>> i & 1) == 1) totals[i] = -1L;
         }
+    }
 
-        return neighborHood;
+    //the total masks, shared with the vectorized kernel
+    long[] totals() {
+        return totals;
     }
 
-    private void setLeft(int idx, boolean[] genStates, boolean[] neighborHood, int length) {
-        try {
-            neighborHood[0] = genStates[idx - 2];
-            neighborHood[1] = genStates[idx - 1];
-        } catch (IndexOutOfBoundsException e) {
-            if(idx - 1 < 0) {
-                neighborHood[0] = genStates[length - 2];
-                neighborHood[1] = genStates[length - 1];
-            } else {
-                neighborHood[0] = genStates[length - 1];
-                neighborHood[1] = genStates[idx - 1];
-            }
+    /**
+     * Evolves a range of words of a padded generation 64 cells at a time. The five cells of every neighborhood
+     * are lined up in five shifted words, their totals are counted with bit-sliced adders into three words holding
+     * the binary digits of each total, and the rule table is then indexed with those digits using bitwise
+     * operations.
+     *
+     * @param padded The words of the generation with one halo word on each side, see Generation.paddedWords.
+     * @param next   The array that receives the evolved words.
+     * @param from   The first word to evolve, inclusive.
+     * @param to     The last word to evolve, exclusive.
+     */
+    @Override
+    void evolveWords(long[] padded, long[] next, int from, int to) {
+        for (int k = from; k < to; k++) {
+            long center = padded[k + 1];
+            long before = padded[k];
+            long after = padded[k + 2];
+            //bit i of each word holds cell i - 2, i - 1, i + 1 and i + 2
+            long left2 = (center << 2) | (before >>> 62);
+            long left1 = (center << 1) | (before >>> 63);
+            long right1 = (center >>> 1) | (after << 63);
+            long right2 = (center >>> 2) | (after << 62);
+
+            //full adder of the left cells and the center cell
+            long partial = left2 ^ left1 ^ center;
+            long carry1 = (left2 & left1) | (center & (left2 ^ left1));
+            //full adder of the right cells and the partial sum gives the ones digit
+            long ones = partial ^ right1 ^ right2;
+            long carry2 = (right1 & right2) | (partial & (right1 ^ right2));
+            //half adder of the carries gives the twos and fours digits
+            long twos = carry1 ^ carry2;
+            long fours = carry1 & carry2;
+
+            //a total of 4 or 5 never has the twos digit set
+            next[k] = mux(fours, mux(ones, totals[5], totals[4]),
+                    mux(twos, mux(ones, totals[3], totals[2]), mux(ones, totals[1], totals[0])));
         }
     }
 
-    private void setRight(int idx, boolean[] genStates, boolean[] neighborHood, int length) {
-        try {
-            neighborHood[3] = genStates[idx + 1];
-            neighborHood[4] = genStates[idx + 2];
-        } catch (IndexOutOfBoundsException e) {
-            if(idx + 1 > length - 1) {
-                neighborHood[3] = genStates[0];
-                neighborHood[4] = genStates[1];
-            } else {
-                neighborHood[3] = genStates[length - 1];
-                neighborHood[4] = genStates[0];
-            }
-        }
+    @Override
+    public boolean evolve(boolean[] neighborhood) {
+        //uses the code of the neighborhood to look up the next state in the compiled table
+        return evolve(encode(neighborhood));
     }
 
     @Override
@@ -0,0 +1,96 @@
+import java.util.Locale;
+
+/**
+ * The amount of data moved by a transfer, such as Automaton.saveEvolution, and how long it took. Compressed files
+ * hold fewer bytes than the text that was transferred, which getCompressionRatio compares.
+ *
+ * @author Cole Hoffman
+ * @version 0.1
+ */
+public final class TransferStats {
+    private final long rows;
+    private final long bytes;
+    private final long fileBytes;
+    private final long nanos;
+
+    TransferStats(long rows, long bytes, long nanos) {
+        this(rows, bytes, bytes, nanos);
+    }
+
+    TransferStats(long rows, long bytes, long fileBytes, long nanos) {
+        this.rows = rows;
+        this.bytes = bytes;
+        this.fileBytes = fileBytes;
+        this.nanos = nanos;
+    }
+
+    //the same transfer to or from a file of the given size
+    TransferStats withFileBytes(long fileBytes) {
+        return new TransferStats(rows, bytes, fileBytes, nanos);
+    }
+
+    /**
+     * Gets the amount of generations that were transferred.
+     *
+     * @return Returns the amount of rows.
+     */
+    public long getRows() {
+        return rows;
+    }
+
+    /**
+     * Gets the amount of bytes of text that were read or written, before compression.
+     *
+     * @return Returns the amount of bytes.
+     */
+    public long getBytes() {
+        return bytes;
+    }
+
+    /**
+     * Gets the size of the file that was read or written, which is smaller than getBytes() if it is compressed.
+     *
+     * @return Returns the amount of bytes in the file.
+     */
+    public long getFileBytes() {
+        return fileBytes;
+    }
+
+    /**
+     * Gets how much smaller the file is than the text it holds.
+     *
+     * @return Returns getBytes() divided by getFileBytes(), 1 for files that are not compressed.
+     */
+    public double getCompressionRatio() {
+        return fileBytes == 0 ? 1 : (double) bytes / fileBytes;
+    }
+
+    /**
+     * Gets how long the transfer took, including the time spent evolving generations while writing them.
+     *
+     * @return Returns the duration in nanoseconds.
+     */
+    public long getNanos() {
+        return nanos;
+    }
+
+    /**
+     * Gets the throughput of the transfer in bytes of text, so compressed and uncompressed transfers compare.
+     *
+     * @return Returns the amount of bytes per second.
+     */
+    public double getBytesPerSecond() {
+        return nanos == 0 ? 0 : bytes * 1e9 / nanos;
+    }
+
+    @Override
+    public String toString() {
+        String stats = String.format(Locale.ROOT, "%d rows, %d bytes in %.3f s (%.1f MB/s)", rows, bytes,
+                nanos / 1e9, getBytesPerSecond() / 1e6);
+        if (fileBytes != bytes) {
+            stats += String.format(Locale.ROOT, ", %d bytes in the file (ratio %.2f)", fileBytes,
+                    getCompressionRatio());
+        }
+        return stats;
+    }
+}
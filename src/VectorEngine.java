@@ -0,0 +1,132 @@
+/**
+ * Evolves generations of elementary and totalistic rules with the Java Vector API, processing a full vector
+ * register of words per iteration instead of one word.
+ * <p>
+ * The Vector API is still an incubator module, so the kernel lives in the separate vector source folder and is
+ * only loaded when the JVM was started with {@code --add-modules jdk.incubator.vector}. To build it, compile the
+ * vector folder against the src classes with the same flag. When the module or the kernel class is missing, every
+ * method falls back to the scalar kernels of the rules, so callers never have to check isAvailable() first.
+ *
+ * @author Cole Hoffman
+ * @version 0.1
+ */
+public final class VectorEngine {
+    //the vectorized kernel, or null if it could not be loaded
+    private static final Kernel KERNEL = loadKernel();
+
+    /**
+     * The contract of the vectorized kernel, implemented by VectorKernel in the vector source folder.
+     */
+    interface Kernel {
+        /**
+         * Checks whether the kernel can evolve the given rule.
+         *
+         * @param rule The rule to check.
+         * @return Returns true if evolveWords supports the rule.
+         */
+        boolean supports(Rule rule);
+
+        /**
+         * Evolves a range of words of a padded generation, see Rule.evolveWords.
+         *
+         * @param rule   The rule to evolve with, one that the kernel supports.
+         * @param padded The words of the generation with one halo word on each side.
+         * @param next   The array that receives the evolved words.
+         * @param from   The first word to evolve, inclusive.
+         * @param to     The last word to evolve, exclusive.
+         */
+        void evolveWords(Rule rule, long[] padded, long[] next, int from, int to);
+    }
+
+    private VectorEngine() {
+    }
+
+    private static Kernel loadKernel() {
+        //the incubator module is only resolved when it is added on the command line
+        if (ModuleLayer.boot().findModule("jdk.incubator.vector").isEmpty()) {
+            return null;
+        }
+
+        try {
+            return (Kernel) Class.forName("VectorKernel").getDeclaredConstructor().newInstance();
+        } catch (ReflectiveOperationException | LinkageError e) {
+            //the vector folder was not compiled, use the scalar kernels
+            return null;
+        }
+    }
+
+    /**
+     * Checks whether the vectorized kernel was loaded.
+     *
+     * @return Returns true if generations are evolved with the Vector API, false if the scalar kernels are used.
+     */
+    public static boolean isAvailable() {
+        return KERNEL != null;
+    }
+
+    /**
+     * Checks whether the vectorized kernel will be used for the given rule.
+     *
+     * @param rule The rule to check.
+     * @return Returns true if the kernel is loaded and supports the rule.
+     */
+    public static boolean supports(Rule rule) {
+        return KERNEL != null && KERNEL.supports(rule);
+    }
+
+    /**
+     * Evolves a generation with the vectorized kernel, or with the rule itself if the kernel is unavailable or does
+     * not support the rule.
+     *
+     * @param rule The rule to evolve with.
+     * @param gen  The generation that is going to be evolved.
+     * @return Returns the new, evolved generation.
+     */
+    public static Generation evolve(Rule rule, Generation gen) {
+        return evolve(rule, gen, Boundary.PERIODIC);
+    }
+
+    /**
+     * Evolves a generation with the vectorized kernel and the given boundary condition, see evolve(Rule, Generation).
+     *
+     * @param rule     The rule to evolve with.
+     * @param gen      The generation that is going to be evolved.
+     * @param boundary The states of the cells past either end of the generation.
+     * @return Returns the new, evolved generation.
+     */
+    public static Generation evolve(Rule rule, Generation gen, Boundary boundary) {
+        if (!supports(rule)) {
+            return rule.evolve(gen, boundary);
+        }
+        if (boundary != Boundary.FIXED_TRUE) {
+            Generation active = rule.evolveActive(gen, true);
+            if (active != null) {
+                return active;
+            }
+        }
+
+        long[] padded = gen.paddedWords(rule.getRadius(), boundary);
+        long[] next = new long[padded.length - 2];
+        KERNEL.evolveWords(rule, padded, next, 0, next.length);
+
+        return Generation.fromWords(next, gen.size());
+    }
+
+    /**
+     * Evolves a range of words of a padded generation with the vectorized kernel if it supports the rule, or with
+     * the rule's scalar kernel otherwise.
+     *
+     * @param rule   The rule to evolve with.
+     * @param padded The words of the generation with one halo word on each side.
+     * @param next   The array that receives the evolved words.
+     * @param from   The first word to evolve, inclusive.
+     * @param to     The last word to evolve, exclusive.
+     */
+    static void evolveWords(Rule rule, long[] padded, long[] next, int from, int to) {
+        if (supports(rule)) {
+            KERNEL.evolveWords(rule, padded, next, from, to);
+        } else {
+            rule.evolveWords(padded, next, from, to);
+        }
+    }
+}
@@ -124,11 +124,6 @@ class AutomatonTest {
 			return true;
 		}
 
-		@Override
-		public boolean[] getNeighborhood(int idx, Generation gen) {
-			return null;
-		}
-
 		@Override
 		public String getRuleTable(char falseSymbol, char trueSymbol) {
 			return falseSymbol + " " + trueSymbol;
@@ -0,0 +1,89 @@
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+import org.junit.jupiter.api.Test;
+
+class BoundaryTest {
+
+	@Test
+	void testKernelsAgree() throws RuleNumException {
+		Random random = new Random(19);
+		Rule[] rules = {new ElementaryRule(30), new ElementaryRule(90), new ElementaryRule(110), new TotalisticRule(22)};
+		TiledEvolver tiled = new TiledEvolver(new ForkJoinPool(3), 64, 0);
+
+		for (Boundary boundary : Boundary.values()) {
+			for (Rule rule : rules) {
+				for (int size : new int[] {1, 3, 64, 65, 130, 700}) {
+					boolean[] states = new boolean[size];
+					for (int i = 0; i < size; i++) {
+						states[i] = size == 700 ? i == 350 : random.nextBoolean();
+					}
+					Generation gen = new Generation(states);
+
+					for (int step = 0; step < 10; step++) {
+						boolean[] expected = evolve(rule, gen, boundary);
+						String message = boundary + " rule " + rule.getRuleNum() + " size " + size + " step " + step;
+						assertArrayEquals(expected, rule.evolve(gen, boundary).getStates(), message);
+						assertArrayEquals(expected, VectorEngine.evolve(rule, gen, boundary).getStates(), message);
+						assertArrayEquals(expected, tiled.evolve(rule, gen, false, boundary).getStates(), message);
+						assertArrayEquals(expected, tiled.evolve(rule, gen, true, boundary).getStates(), message);
+						gen = new Generation(expected);
+					}
+				}
+			}
+		}
+	}
+
+	// Evolves every cell from a neighborhood read cell by cell.
+	private boolean[] evolve(Rule rule, Generation gen, Boundary boundary) {
+		int size = gen.size();
+		int radius = rule.getRadius();
+		boolean[] next = new boolean[size];
+		for (int i = 0; i < size; i++) {
+			int code = 0;
+			for (int j = i - radius; j <= i + radius; j++) {
+				boolean state;
+				if (j >= 0 && j < size) {
+					state = gen.getState(j);
+				} else if (boundary == Boundary.FIXED_FALSE) {
+					state = false;
+				} else if (boundary == Boundary.FIXED_TRUE) {
+					state = true;
+				} else if (boundary == Boundary.REFLECTING) {
+					int mirrored = Math.floorMod(j, 2 * size);
+					state = gen.getState(mirrored < size ? mirrored : 2 * size - 1 - mirrored);
+				} else {
+					state = gen.getState(Math.floorMod(j, size));
+				}
+				code = code << 1 | (state ? 1 : 0);
+			}
+			next[i] = rule.evolve(code);
+		}
+		return next;
+	}
+
+	@Test
+	void testAutomatonBoundary() throws RuleNumException {
+		// With true cells past the ends rule 90 grows inwards from both ends.
+		Automaton eca = new ElementaryAutomaton(90, new Generation("000000000", '1'));
+		eca.setBoundary(Boundary.FIXED_TRUE);
+		eca.evolve(2);
+
+		String expected = "000000000" + System.lineSeparator() +
+				"100000001" + System.lineSeparator() +
+				"110000011";
+		assertEquals(expected, eca.toString());
+
+		Automaton reflecting = new ElementaryAutomaton(90, new Generation("100000000", '1'));
+		reflecting.setBoundary(Boundary.REFLECTING);
+		assertEquals("110000000", reflecting.getGeneration(1).getStates('0', '1'));
+
+		// The steps that are kept were evolved with the boundary, so it cannot change afterwards.
+		assertThrows(IllegalStateException.class, () -> reflecting.setBoundary(Boundary.PERIODIC));
+		assertThrows(IllegalStateException.class, () -> eca.setBoundary(Boundary.FIXED_TRUE));
+	}
+}
@@ -0,0 +1,74 @@
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+class CheckpointedHistoryTest {
+
+	@Test
+	void testMatchesFullHistory() throws RuleNumException {
+		Generation initial = new Generation("000000000000000000000000000000100000000000000000000000000000000", '1');
+		Automaton reference = new ElementaryAutomaton(30, initial);
+		Automaton automaton = new ElementaryAutomaton(30, initial);
+		reference.setCycleDetection(false);
+		automaton.setCycleDetection(false);
+		automaton.setHistory(GenerationHistory.checkpointed(16, 16));
+		reference.evolve(1000);
+		automaton.evolve(1000);
+
+		for (int step : new int[] {999, 0, 17, 16, 1000, 500, 501, 499}) {
+			assertEquals(reference.getGeneration(step), automaton.getGeneration(step));
+		}
+		assertEquals(reference.toString(), automaton.toString());
+	}
+
+	@Test
+	void testEvolvesEachSegmentOnce() throws RuleNumException {
+		Rule rule = new ElementaryRule(110);
+		CheckpointedHistory history = new CheckpointedHistory(8, 8);
+		int[] evolutions = new int[1];
+		history.attach(gen -> {
+			evolutions[0]++;
+			return rule.evolve(gen);
+		});
+
+		Generation gen = new Generation("0000000000000000000000001", '1');
+		Generation[] expected = new Generation[100];
+		for (int step = 0; step < expected.length; step++) {
+			expected[step] = gen;
+			history.add(gen);
+			gen = rule.evolve(gen);
+		}
+
+		// Reading in order evolves the 7 steps between each pair of checkpoints once.
+		for (int step = 0; step < expected.length; step++) {
+			assertEquals(expected[step], history.get(step));
+		}
+		assertEquals(12 * 7 + 2, evolutions[0]);
+		assertEquals(expected[98], history.get(98));
+		assertEquals(12 * 7 + 2, evolutions[0]);
+
+		// Step 50 is no longer cached and is evolved again from step 48.
+		assertEquals(expected[50], history.get(50));
+		assertEquals(12 * 7 + 4, evolutions[0]);
+	}
+
+	@Test
+	void testWithinBudget() {
+		// 2 words and 48 bytes of headers are 64 bytes per generation, half of the budget holds 100 checkpoints.
+		CheckpointedHistory history = (CheckpointedHistory) GenerationHistory.withinBudget(12_800, 100, 10_000);
+		assertEquals(101, history.getInterval());
+		assertEquals(100, history.getCacheSize());
+
+		assertTrue(((CheckpointedHistory) GenerationHistory.withinBudget(1L << 40, 100, 10_000)).getInterval() == 1);
+		assertThrows(IllegalArgumentException.class, () -> GenerationHistory.checkpointed(0, 0));
+		assertThrows(IllegalStateException.class, () -> {
+			CheckpointedHistory detached = new CheckpointedHistory(4, 0);
+			for (int i = 0; i < 3; i++) {
+				detached.add(new Generation());
+			}
+			detached.get(1);
+		});
+	}
+}
@@ -0,0 +1,86 @@
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+class DeltaHistoryTest {
+
+	@Test
+	void testMatchesFullHistory() throws RuleNumException {
+		Random random = new Random(15);
+		boolean[] states = new boolean[1000];
+		for (int i = 0; i < states.length; i++) {
+			states[i] = random.nextInt(10) == 0;
+		}
+		Generation initial = new Generation(states);
+
+		for (int ruleNum : new int[] {30, 110, 4, 184}) {
+			Automaton reference = new ElementaryAutomaton(ruleNum, initial);
+			Automaton automaton = new ElementaryAutomaton(ruleNum, initial);
+			reference.setCycleDetection(false);
+			automaton.setCycleDetection(false);
+			automaton.setHistory(GenerationHistory.deltas(32));
+			reference.evolve(300);
+			automaton.evolve(300);
+
+			assertEquals(reference.toString(), automaton.toString());
+			for (int step : new int[] {299, 33, 32, 31, 0, 200, 150}) {
+				assertEquals(reference.getGeneration(step), automaton.getGeneration(step));
+			}
+			assertEquals(1.0, reference.getCompressionRatio());
+		}
+	}
+
+	@Test
+	void testUnboundedGenerations() throws RuleNumException {
+		// Rule 30 grows every step and rule 4 settles, so steps both change and keep their shape.
+		for (int ruleNum : new int[] {30, 4}) {
+			Automaton reference = new ElementaryAutomaton(ruleNum, new Generation("1011", '1'));
+			Automaton automaton = new ElementaryAutomaton(ruleNum, new Generation("1011", '1'));
+			reference.setUnbounded(true);
+			automaton.setUnbounded(true);
+			automaton.setHistory(GenerationHistory.deltas(8));
+			reference.evolve(100);
+			automaton.evolve(100);
+
+			assertEquals(reference.toString(), automaton.toString());
+			assertEquals(reference.getGeneration(37), automaton.getGeneration(37));
+		}
+	}
+
+	@Test
+	void testCompressionRatio() {
+		// A single moving cell changes at most two words per step.
+		Rule rule = new MockShiftRule();
+		DeltaHistory history = new DeltaHistory(100);
+		Generation gen = new Generation("1" + "0".repeat(6399), '1');
+		for (int step = 0; step < 100; step++) {
+			history.add(gen);
+			gen = rule.evolve(gen);
+		}
+
+		// 100 full copies are 10000 words, the keyframe is 100 words and each delta at most 3.
+		assertTrue(history.getCompressionRatio() > 10000.0 / (100 + 99 * 3) - 1e-9);
+		assertEquals(new Generation("0".repeat(64) + "1" + "0".repeat(6335), '1'), history.get(64));
+		assertEquals(1.0, new DeltaHistory(5).getCompressionRatio());
+	}
+
+	//moves every cell one to the right
+	private static class MockShiftRule extends Rule {
+		MockShiftRule() {
+			super(170);
+		}
+
+		@Override
+		public boolean evolve(boolean[] neighborhood) {
+			return neighborhood[0];
+		}
+
+		@Override
+		public String getRuleTable(char falseSymbol, char trueSymbol) {
+			return "";
+		}
+	}
+}
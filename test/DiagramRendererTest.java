@@ -0,0 +1,127 @@
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.zip.Deflater;
+
+import javax.imageio.ImageIO;
+
+import org.junit.jupiter.api.Test;
+
+class DiagramRendererTest {
+
+	@Test
+	void testPng() throws RuleNumException, IOException {
+		String filename = "testPng.png";
+		Automaton eca = new ElementaryAutomaton(30, new Generation("0".repeat(150) + "1" + "0".repeat(149), '1'));
+		eca.evolve(120);
+		TransferStats stats = eca.renderEvolution(filename, 1);
+		assertEquals(121, stats.getRows());
+
+		// Every pixel is the state of its cell, black for true, in a one bit image.
+		BufferedImage image = ImageIO.read(new File(filename));
+		assertEquals(300, image.getWidth());
+		assertEquals(121, image.getHeight());
+		for (int y = 0; y <= 120; y++) {
+			Generation generation = eca.getGeneration(y);
+			for (int x = 0; x < 300; x++) {
+				assertEquals(generation.getState(x) ? 0 : 1, image.getRaster().getSample(x, y, 0));
+			}
+		}
+		new File(filename).delete();
+	}
+
+	@Test
+	void testScaledPng() throws RuleNumException, IOException {
+		String filename = "testScaledPng.png";
+		Automaton eca = new ElementaryAutomaton(30, new Generation("0".repeat(150) + "1" + "0".repeat(149), '1'));
+		eca.evolve(120);
+		eca.renderEvolution(filename, 4);
+
+		// A pixel is the share of true cells in its block, and the blocks at the edges are smaller.
+		BufferedImage image = ImageIO.read(new File(filename));
+		assertEquals(75, image.getWidth());
+		assertEquals(31, image.getHeight());
+		for (int y = 0; y < 31; y++) {
+			for (int x = 0; x < 75; x++) {
+				int count = 0;
+				int cells = 0;
+				for (int step = 4 * y; step < Math.min(121, 4 * y + 4); step++) {
+					count += eca.getGeneration(step).window(4 * x, 4 * x + 4).countSetCells();
+					cells += 4;
+				}
+				assertEquals(255 - (255 * count + cells / 2) / cells, image.getRaster().getSample(x, y, 0));
+			}
+		}
+		new File(filename).delete();
+	}
+
+	@Test
+	void testPbmAndPgm() throws IOException {
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		DiagramRenderer renderer = new DiagramRenderer(out, DiagramRenderer.Format.PBM, 10, 2, 1,
+				Deflater.BEST_SPEED);
+		renderer.addRow(new Generation("1000000011", '1'));
+		renderer.addRow(new Generation("0100000000", '1'));
+		TransferStats stats = renderer.finish();
+		byte[] expected = concat("P4\n10 2\n", new byte[] {(byte) 0x80, (byte) 0xc0, 0x40, 0x00});
+		assertArrayEquals(expected, out.toByteArray());
+		assertEquals(expected.length, stats.getBytes());
+
+		// Blocks of 2 x 2 cells, with a single column in the last block.
+		out = new ByteArrayOutputStream();
+		renderer = new DiagramRenderer(out, DiagramRenderer.Format.PGM, 5, 2, 2, Deflater.BEST_SPEED);
+		renderer.addRow(new Generation("11101", '1'));
+		renderer.addRow(new Generation("01000", '1'));
+		renderer.finish();
+		expected = concat("P5\n3 1\n255\n", new byte[] {(byte) 64, (byte) 191, (byte) 127});
+		assertArrayEquals(expected, out.toByteArray());
+	}
+
+	@Test
+	void testUnbounded() throws RuleNumException, IOException {
+		String filename = "testUnbounded.pgm";
+		Automaton eca = new ElementaryAutomaton(90, new Generation("1", '1'));
+		eca.setUnbounded(true);
+		eca.evolve(3);
+		eca.renderEvolution(filename, 1);
+
+		// The rows are aligned like in toString.
+		StringBuilder pixels = new StringBuilder();
+		for (String row : eca.toString().split(System.lineSeparator())) {
+			for (char c : row.toCharArray()) {
+				pixels.append(c == '1' ? (char) 0 : (char) 255);
+			}
+		}
+		byte[] expected = concat("P5\n7 4\n255\n", pixels.toString().getBytes(StandardCharsets.ISO_8859_1));
+		assertArrayEquals(expected, Files.readAllBytes(new File(filename).toPath()));
+		new File(filename).delete();
+	}
+
+	@Test
+	void testErrors() throws RuleNumException, IOException {
+		Automaton eca = new ElementaryAutomaton(90, new Generation("0010", '1'));
+		assertThrows(IllegalArgumentException.class, () -> eca.renderEvolution("diagram.jpg", 1));
+		assertThrows(IllegalArgumentException.class, () -> eca.renderEvolution("diagram.pbm", 0));
+
+		DiagramRenderer renderer = new DiagramRenderer(new ByteArrayOutputStream(), DiagramRenderer.Format.PBM, 4,
+				2, 1, Deflater.BEST_SPEED);
+		assertThrows(IllegalArgumentException.class, () -> renderer.addRow(new Generation("010", '1')));
+		renderer.addRow(new Generation("0100", '1'));
+		assertThrows(IllegalStateException.class, renderer::finish);
+	}
+
+	private static byte[] concat(String header, byte[] pixels) {
+		byte[] bytes = header.getBytes(StandardCharsets.US_ASCII);
+		byte[] result = new byte[bytes.length + pixels.length];
+		System.arraycopy(bytes, 0, result, 0, bytes.length);
+		System.arraycopy(pixels, 0, result, bytes.length, pixels.length);
+		return result;
+	}
+}
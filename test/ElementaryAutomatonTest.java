@@ -1,5 +1,6 @@
 import static org.junit.jupiter.api.Assertions.assertArrayEquals;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
 import org.junit.jupiter.api.Test;
@@ -7,6 +8,8 @@ import org.junit.jupiter.api.Test;
 import java.io.BufferedReader;
 import java.io.FileReader;
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
 
 class ElementaryAutomatonTest {
 
@@ -234,6 +237,93 @@ class ElementaryAutomatonTest {
 
 	}
 
+	@Test
+	void testCycleDetection() throws RuleNumException {
+		Generation initial = new Generation("00000000000000000000100000000000000000000", '1');
+
+		// Find where the circular row becomes periodic by brute force.
+		Rule rule = new ElementaryRule(110);
+		HashMap<Generation, Integer> seen = new HashMap<>();
+		ArrayList<Generation> rows = new ArrayList<>();
+		Generation gen = initial;
+		while (!seen.containsKey(gen)) {
+			seen.put(gen, rows.size());
+			rows.add(gen);
+			gen = rule.evolve(gen);
+		}
+		int transientLength = seen.get(gen);
+		int period = rows.size() - transientLength;
+
+		Automaton eca = new ElementaryAutomaton(110, initial);
+		assertEquals(-1, eca.getPeriod());
+		eca.evolve(1_000_000);
+		assertEquals(1_000_000, eca.getTotalSteps());
+		assertEquals(transientLength, eca.getTransientLength());
+		assertEquals(period, eca.getPeriod());
+
+		for (int step : new int[] {0, transientLength, rows.size(), 54321, 1_000_000, 1_500_000}) {
+			Generation expected = rows.get(step < rows.size() ? step : transientLength + (step - transientLength) % period);
+			assertEquals(expected, eca.getGeneration(step));
+		}
+		assertEquals(1_500_000, eca.getTotalSteps());
+		assertEquals(rows.get(transientLength + (int) ((Long.MAX_VALUE - transientLength) % period)),
+				eca.getGeneration(Long.MAX_VALUE));
+
+		// Without detection every step is evolved, with the same result.
+		Automaton plain = new ElementaryAutomaton(110, initial);
+		plain.setCycleDetection(false);
+		plain.evolve(3000);
+		assertEquals(-1, plain.getPeriod());
+		Automaton cycling = new ElementaryAutomaton(110, initial);
+		cycling.evolve(3000);
+		assertEquals(plain.toString(), cycling.toString());
+	}
+
+	@Test
+	void testUnbounded() throws RuleNumException {
+		for (int ruleNum : new int[] {90, 30, 110, 1, 4}) {
+			Automaton eca = new ElementaryAutomaton(ruleNum, new Generation("1101", '1'));
+			eca.setUnbounded(true);
+			eca.evolve(200);
+
+			// A circular row wide enough that the pattern never reaches around it behaves like the infinite line.
+			int margin = 300;
+			Rule rule = new ElementaryRule(ruleNum);
+			Generation wide = new Generation("0".repeat(margin) + "1101" + "0".repeat(margin), '1');
+			for (int step = 0; step <= 200; step++) {
+				Generation gen = eca.getGeneration(step);
+				for (int x = -margin; x < 4 + margin; x++) {
+					int idx = x - gen.getOffset();
+					boolean state = idx >= 0 && idx < gen.size() ? gen.getState(idx) : gen.getBackground();
+					assertEquals(wide.getState(margin + x), state, "rule " + ruleNum + " step " + step + " cell " + x);
+				}
+				wide = rule.evolve(wide);
+			}
+		}
+
+		// Rule 4 keeps the single cell, so the stored generation never grows.
+		Automaton still = new ElementaryAutomaton(4, new Generation("00100", '1'));
+		still.setUnbounded(true);
+		still.evolve(1000);
+		assertEquals(1, still.getGeneration(1000).size());
+		assertEquals(2, still.getGeneration(1000).getOffset());
+		assertThrows(IllegalStateException.class, () -> still.setUnbounded(false));
+	}
+
+	@Test
+	void testUnboundedToString() throws RuleNumException {
+		Automaton eca = new ElementaryAutomaton(90, new Generation("1", '1'));
+		eca.setUnbounded(true);
+		eca.evolve(3);
+
+		String expected = "0001000" + System.lineSeparator() +
+				"0010100" + System.lineSeparator() +
+				"0100010" + System.lineSeparator() +
+				"1010101";
+		assertEquals(expected, eca.toString());
+		assertEquals(-3, eca.getGeneration(3).getOffset());
+	}
+
 	private String getFromFile(String fileName) {
 		try {
 			BufferedReader reader = new BufferedReader(new FileReader(fileName));
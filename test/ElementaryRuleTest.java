@@ -7,6 +7,7 @@ import static org.junit.jupiter.api.Assertions.fail;
 import org.junit.jupiter.api.Test;
 
 import java.util.Arrays;
+import java.util.Random;
 
 class ElementaryRuleTest {
 
@@ -121,4 +122,40 @@ class ElementaryRuleTest {
         next = rule.evolve(current);
         assertEquals("TTFTTFFF", next.getStates('F', 'T'));
     }
+
+    @Test
+    void testEvolveWordBoundaries() throws RuleNumException {
+        Random random = new Random(22);
+
+        // Compare the packed kernel with the cell by cell neighborhoods of every rule.
+        for (int size : new int[]{1, 2, 3, 63, 64, 65, 200}) {
+            boolean[] states = new boolean[size];
+            for (int i = 0; i < size; i++) {
+                states[i] = random.nextBoolean();
+            }
+            Generation current = new Generation(states);
+
+            for (int ruleNum = 0; ruleNum < 256; ruleNum++) {
+                Rule rule = new ElementaryRule(ruleNum);
+                boolean[] expected = new boolean[size];
+                for (int i = 0; i < size; i++) {
+                    expected[i] = rule.evolve(rule.getNeighborhood(i, current));
+                }
+                assertArrayEquals(expected, rule.evolve(current).getStates());
+            }
+        }
+    }
+
+    @Test
+    void testEvolveCode() throws RuleNumException {
+        Rule rule = new ElementaryRule(22);
+        assertFalse(rule.evolve(7));
+        assertFalse(rule.evolve(6));
+        assertFalse(rule.evolve(5));
+        assertTrue(rule.evolve(4));
+        assertFalse(rule.evolve(3));
+        assertTrue(rule.evolve(2));
+        assertTrue(rule.evolve(1));
+        assertFalse(rule.evolve(0));
+    }
 }
@@ -0,0 +1,116 @@
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.channels.Channels;
+import java.nio.charset.Charset;
+import java.nio.file.Files;
+import java.util.zip.GZIPInputStream;
+
+import org.junit.jupiter.api.Test;
+
+class EvolutionReaderTest {
+
+	@Test
+	void testRows() throws IOException {
+		// Mixed line endings, rows wider than the buffer and a newline after the last row.
+		String text = "0110" + "0".repeat(100) + "\r\n" + "1111" + "0".repeat(100) + "\n" + "0001" + "0".repeat(100) + "\n";
+		EvolutionReader reader = new EvolutionReader(
+				Channels.newChannel(new ByteArrayInputStream(text.getBytes(Charset.defaultCharset()))), 16, '0', '1');
+		assertEquals(new Generation("0110" + "0".repeat(100), '1'), reader.next());
+		assertEquals(new Generation("1111" + "0".repeat(100), '1'), reader.next());
+		assertEquals(new Generation("0001" + "0".repeat(100), '1'), reader.next());
+		assertNull(reader.next());
+		assertEquals(3, reader.getStats().getRows());
+		assertEquals(text.length(), reader.getStats().getBytes());
+		reader.close();
+
+		// The words of the first row grow by doubling, but the generation only keeps the words its cells need.
+		reader = new EvolutionReader(Channels.newChannel(new ByteArrayInputStream(
+				("1" + "0".repeat(129)).getBytes(Charset.defaultCharset()))), 16, '0', '1');
+		assertEquals(Generation.wordCount(130), reader.next().words().length);
+		reader.close();
+	}
+
+	@Test
+	void testCompressedRoundTrip() throws RuleNumException, IOException {
+		String filename = "testCompressedRoundTrip.txt.gz";
+		Generation initial = new Generation("0".repeat(200) + "1" + "0".repeat(199), '1');
+		Automaton eca = new ElementaryAutomaton(90, initial);
+		eca.evolve(150);
+		eca.setCompressionLevel(9);
+		TransferStats saved = eca.saveEvolution(filename);
+
+		// The file is GZIP, and rule 90 compresses well.
+		File file = new File(filename);
+		assertEquals(file.length(), saved.getFileBytes());
+		assertEquals(151 * 400 + 150 * System.lineSeparator().length(), saved.getBytes());
+		assertTrue(saved.getCompressionRatio() > 10);
+		String text = new String(new GZIPInputStream(Files.newInputStream(file.toPath())).readAllBytes(),
+				Charset.defaultCharset());
+		assertEquals(eca.toString(), text);
+
+		// The loaded automaton only keeps the last row and continues evolving from it.
+		Automaton loaded = new ElementaryAutomaton(90, new Generation("0", '1'));
+		TransferStats read = loaded.loadEvolution(filename, GenerationHistory.keepCurrent());
+		assertEquals(151, read.getRows());
+		assertEquals(saved.getBytes(), read.getBytes());
+		assertEquals(saved.getFileBytes(), read.getFileBytes());
+		assertEquals(150, loaded.getTotalSteps());
+		assertEquals(eca.getGeneration(150), loaded.getGeneration(150));
+		assertEquals(eca.getGeneration(170), loaded.getGeneration(170));
+		file.delete();
+	}
+
+	@Test
+	void testLoadEvolution() throws RuleNumException {
+		String filename = "testLoadEvolution.txt";
+		Automaton eca = new ElementaryAutomaton(110, new Generation("00000000001000000000", '1'));
+		eca.trueSymbol = '#';
+		eca.falseSymbol = ' ';
+		eca.evolve(12);
+		eca.saveEvolution(filename);
+
+		Automaton loaded = new ElementaryAutomaton(110, new Generation("0", '1'));
+		loaded.trueSymbol = '#';
+		loaded.falseSymbol = ' ';
+		loaded.loadEvolution(filename);
+		assertEquals(eca.toString(), loaded.toString());
+		loaded.evolve(5);
+		eca.evolve(5);
+		assertEquals(eca.toString(), loaded.toString());
+		new File(filename).delete();
+	}
+
+	@Test
+	void testErrors() throws RuleNumException, IOException {
+		String filename = "testErrors-evolution.txt";
+		Automaton eca = new ElementaryAutomaton(90, new Generation("0010", '1'));
+
+		Files.writeString(new File(filename).toPath(), "0010\n011\n", Charset.defaultCharset());
+		assertThrows(IllegalArgumentException.class, () -> eca.loadEvolution(filename));
+		Files.writeString(new File(filename).toPath(), "0010\n0120\n", Charset.defaultCharset());
+		assertThrows(IllegalArgumentException.class, () -> eca.loadEvolution(filename));
+		Files.writeString(new File(filename).toPath(), "0010\n\n0100\n", Charset.defaultCharset());
+		assertThrows(IllegalArgumentException.class, () -> eca.loadEvolution(filename));
+
+		// A file that fails part way through leaves the automaton as it was.
+		eca.evolve(3);
+		String before = eca.toString();
+		Files.writeString(new File(filename).toPath(), "11111\n00000\n0000\n", Charset.defaultCharset());
+		assertThrows(IllegalArgumentException.class, () -> eca.loadEvolution(filename));
+		assertEquals(3, eca.getTotalSteps());
+		assertEquals(before, eca.toString());
+		eca.evolve(1);
+		assertEquals(4, eca.getTotalSteps());
+		new File(filename).delete();
+
+		assertThrows(UncheckedIOException.class, () -> eca.loadEvolution("missing-evolution.txt.gz"));
+		assertThrows(IllegalArgumentException.class, () -> eca.setCompressionLevel(10));
+	}
+}
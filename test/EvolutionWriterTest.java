@@ -0,0 +1,87 @@
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.channels.Channels;
+import java.nio.charset.Charset;
+import java.nio.file.Files;
+import java.util.Arrays;
+
+import org.junit.jupiter.api.Test;
+
+class EvolutionWriterTest {
+
+	@Test
+	void testSmallBuffer() throws RuleNumException, IOException {
+		// Rows far wider than the buffer are written in pieces.
+		Automaton eca = new ElementaryAutomaton(30, new Generation("0".repeat(150) + "1" + "0".repeat(149), '1'));
+		eca.evolve(40);
+
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		EvolutionWriter writer = new EvolutionWriter(Channels.newChannel(out), 64, '.', '#');
+		for (int step = 0; step <= 40; step++) {
+			writer.writeRow(eca.getGeneration(step), 0, 0);
+		}
+		TransferStats stats = writer.finish();
+		writer.close();
+
+		eca.falseSymbol = '.';
+		eca.trueSymbol = '#';
+		assertEquals(eca.toString(), out.toString(Charset.defaultCharset()));
+		assertEquals(41, stats.getRows());
+		assertEquals(out.size(), stats.getBytes());
+	}
+
+	@Test
+	void testSaveEvolution() throws RuleNumException, IOException {
+		String filename = "testSaveEvolution-writer.txt";
+		Automaton eca = new ElementaryAutomaton(90, new Generation("00001000", '1'));
+		eca.setUnbounded(true);
+		eca.evolve(5);
+
+		// Unbounded generations are aligned like in toString.
+		TransferStats stats = eca.saveEvolution(filename);
+		File file = new File(filename);
+		assertEquals(eca.toString(), Files.readString(file.toPath(), Charset.defaultCharset()));
+		assertEquals(6, stats.getRows());
+		assertEquals(file.length(), stats.getBytes());
+		assertTrue(stats.getBytesPerSecond() > 0);
+		file.delete();
+	}
+
+	@Test
+	void testEvolveAndSave() throws RuleNumException, IOException {
+		String filename = "testEvolveAndSave-output.txt";
+		Automaton eca = new ElementaryAutomaton(110, new Generation("0000000000100000000000", '1'));
+		eca.evolve(3);
+		eca.setHistory(GenerationHistory.keepCurrent());
+
+		// Only the current step is kept, and every new step is written as it is evolved.
+		TransferStats stats = eca.evolveAndSave(30, filename);
+		assertEquals(33, eca.getTotalSteps());
+		assertEquals(31, stats.getRows());
+
+		Automaton reference = new ElementaryAutomaton(110, new Generation("0000000000100000000000", '1'));
+		reference.evolve(33);
+		String[] rows = reference.toString().split(System.lineSeparator());
+		String expected = String.join(System.lineSeparator(), Arrays.copyOfRange(rows, 3, 34));
+		File file = new File(filename);
+		assertEquals(expected, Files.readString(file.toPath(), Charset.defaultCharset()));
+		file.delete();
+	}
+
+	@Test
+	void testErrors() throws RuleNumException {
+		Automaton eca = new ElementaryAutomaton(90, new Generation("0010", '1'));
+
+		// The file cannot be created inside a missing directory.
+		assertThrows(UncheckedIOException.class, () -> eca.saveEvolution("missing-directory/evolution.txt"));
+
+		eca.setUnbounded(true);
+		assertThrows(IllegalStateException.class, () -> eca.evolveAndSave(1, "unbounded.txt"));
+	}
+}
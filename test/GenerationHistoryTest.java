@@ -0,0 +1,83 @@
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import org.junit.jupiter.api.Test;
+
+class GenerationHistoryTest {
+
+	@Test
+	void testKeepLast() {
+		GenerationHistory history = GenerationHistory.keepLast(3);
+		Generation[] gens = new Generation[10];
+		for (int i = 0; i < gens.length; i++) {
+			gens[i] = new Generation(Integer.toBinaryString(i), '1');
+			history.add(gens[i]);
+		}
+
+		assertEquals(7, history.getFirstStep());
+		assertEquals(9, history.getLastStep());
+		for (int i = 7; i < 10; i++) {
+			assertEquals(gens[i], history.get(i));
+		}
+		assertThrows(IllegalStateException.class, () -> history.get(6));
+		assertThrows(IllegalStateException.class, () -> history.get(10));
+		assertThrows(IllegalArgumentException.class, () -> GenerationHistory.keepLast(0));
+	}
+
+	@Test
+	void testKeepCurrentAndAll() {
+		GenerationHistory current = GenerationHistory.keepCurrent();
+		GenerationHistory all = GenerationHistory.keepAll();
+		all.startAt(5);
+		for (int i = 0; i < 4; i++) {
+			current.add(new Generation(Integer.toBinaryString(i), '1'));
+			all.add(new Generation(Integer.toBinaryString(i), '1'));
+		}
+
+		assertEquals(3, current.getFirstStep());
+		assertEquals(new Generation("11", '1'), current.get(3));
+		assertEquals(5, all.getFirstStep());
+		assertEquals(8, all.getLastStep());
+		assertEquals(new Generation("10", '1'), all.get(7));
+		assertThrows(IllegalStateException.class, () -> all.get(4));
+	}
+
+	@Test
+	void testAutomatonInConstantMemory() throws RuleNumException {
+		Generation initial = new Generation("0000000000000000000000000000000000000000000000000100000000000000000000000000000000000000000000000", '1');
+		Automaton automaton = new ElementaryAutomaton(30, initial);
+		Automaton reference = new ElementaryAutomaton(30, initial);
+		automaton.setHistory(GenerationHistory.keepLast(4));
+		reference.evolve(2000);
+
+		automaton.evolve(2000);
+		assertEquals(2000, automaton.getTotalSteps());
+		assertEquals(reference.getGeneration(1997), automaton.getGeneration(1997));
+		assertEquals(reference.getGeneration(2000), automaton.getGeneration(2000));
+		assertThrows(IllegalStateException.class, () -> automaton.getGeneration(1996));
+		assertEquals(4, automaton.toString().split(System.lineSeparator()).length);
+
+		// Only the current generation is kept from here on.
+		automaton.setHistory(GenerationHistory.keepCurrent());
+		automaton.evolve(1_000_000);
+		assertEquals(1_002_000, automaton.getTotalSteps());
+		assertThrows(IllegalStateException.class, () -> automaton.getGeneration(1_001_999));
+		reference.setHistory(GenerationHistory.keepCurrent());
+		reference.evolve(1_000_000);
+		assertEquals(reference.getGeneration(1_002_000), automaton.getGeneration(1_002_000));
+	}
+
+	@Test
+	void testCycleWithBoundedHistory() throws RuleNumException {
+		// Rule 4 keeps isolated cells, so the row is still after one step.
+		Automaton automaton = new ElementaryAutomaton(4, new Generation("0110100100", '1'));
+		automaton.setHistory(GenerationHistory.keepCurrent());
+		automaton.evolve(10_000);
+
+		assertEquals(1, automaton.getTransientLength());
+		assertEquals(1, automaton.getPeriod());
+		assertEquals(new Generation("0000100100", '1'), automaton.getGeneration(10_000));
+		assertEquals(new Generation("0000100100", '1'), automaton.getGeneration(Long.MAX_VALUE));
+		assertThrows(IllegalStateException.class, () -> automaton.getGeneration(0));
+	}
+}
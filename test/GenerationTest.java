@@ -106,4 +106,60 @@ class GenerationTest {
 		cellStates[0] = false;
 		assertTrue(gen.getState(0));
 	}
+
+	@Test
+	void testWordBoundaries() {
+		// Use widths on and around the 64-cell word size.
+		for (int size : new int[] {63, 64, 65, 128, 130}) {
+			boolean[] cellStates = new boolean[size];
+			for (int i = 0; i < size; i++) {
+				cellStates[i] = i % 3 == 0 || i == size - 1;
+			}
+			Generation gen = new Generation(cellStates);
+			assertEquals(size, gen.size());
+			assertArrayEquals(cellStates, gen.getStates());
+			assertTrue(gen.getState(size - 1));
+			assertEquals((size - 2) % 3 == 0, gen.getState(size - 2));
+			assertEquals(Generation.wordCount(size), gen.words().length);
+		}
+
+		// Packed words are masked to the generation's size.
+		Generation gen = Generation.fromWords(new long[] {-1L, -1L}, 70);
+		assertEquals(70, gen.size());
+		assertEquals(0x3FL, gen.words()[1]);
+	}
+
+	@Test
+	void testReadWithoutCopies() {
+		Generation gen = new Generation("0110000000000000000000000000000000000000000000000000000000000000001", '1');
+
+		// Copy into a reused buffer.
+		boolean[] buffer = new boolean[gen.size() + 2];
+		gen.copyStates(buffer);
+		assertTrue(buffer[1]);
+		assertTrue(buffer[66]);
+		assertFalse(buffer[67]);
+		gen.copyStates(65, buffer, 0, 2);
+		assertFalse(buffer[0]);
+		assertTrue(buffer[1]);
+
+		// Iterate over the true cells.
+		assertEquals(1, gen.nextSetCell(0));
+		assertEquals(2, gen.nextSetCell(2));
+		assertEquals(66, gen.nextSetCell(3));
+		assertEquals(-1, gen.nextSetCell(67));
+		assertEquals(3, gen.countSetCells());
+	}
+
+	@Test
+	void testEquals() {
+		Generation gen = new Generation("1000000000000000000000000000000000000000000000000000000000000000001", '1');
+		Generation same = new Generation("1000000000000000000000000000000000000000000000000000000000000000001", '1');
+
+		assertEquals(gen, same);
+		assertEquals(gen.hashCode(), same.hashCode());
+		assertFalse(gen.equals(new Generation("1000000000000000000000000000000000000000000000000000000000000000000", '1')));
+		assertFalse(gen.equals(new Generation("10000000000000000000000000000000000000000000000000000000000000000010", '1')));
+		assertFalse(gen.equals(gen.getStates('0', '1')));
+	}
 }
@@ -0,0 +1,54 @@
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assertions.fail;
+
+import org.junit.jupiter.api.Test;
+
+class GenerationWindowTest {
+
+	@Test
+	void testWindow() {
+		Generation gen = new Generation("1001101", '1');
+		GenerationWindow window = gen.window(2, 6);
+
+		assertEquals(4, window.size());
+		assertFalse(window.getState(0));
+		assertTrue(window.getState(1));
+		assertTrue(window.getState(2));
+		assertFalse(window.getState(3));
+		assertEquals(".OO.", window.getStates('.', 'O'));
+		assertEquals(2, window.countSetCells());
+
+		boolean[] buffer = new boolean[4];
+		window.copyStates(buffer, 0);
+		assertArrayEquals(new boolean[] {false, true, true, false}, buffer);
+
+		// The cell after the window is true but is not part of it.
+		assertEquals(1, window.nextSetCell(0));
+		assertEquals(2, window.nextSetCell(2));
+		assertEquals(-1, window.nextSetCell(3));
+	}
+
+	@Test
+	void testBounds() {
+		Generation gen = new Generation("1001101", '1');
+
+		try {
+			gen.window(3, 8);
+			fail();
+		} catch (IndexOutOfBoundsException e) {
+			assertEquals("range [3, 8) is outside [0, 7)", e.getMessage());
+		}
+
+		try {
+			gen.window(0, 2).getState(2);
+			fail();
+		} catch (IndexOutOfBoundsException ignored) {
+		}
+
+		assertEquals(0, gen.window(4, 4).size());
+		assertEquals(-1, gen.window(4, 4).nextSetCell(0));
+	}
+}
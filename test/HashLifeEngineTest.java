@@ -0,0 +1,74 @@
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+class HashLifeEngineTest {
+
+	@Test
+	void testMatchesStepByStep() throws RuleNumException {
+		Random random = new Random(90);
+		Rule[] rules = {new ElementaryRule(110), new ElementaryRule(90), new ElementaryRule(30),
+				new TotalisticRule(22)};
+
+		for (Rule rule : rules) {
+			for (int size : new int[] {1, 3, 61, 64, 100, 257}) {
+				boolean[] states = new boolean[size];
+				for (int i = 0; i < size; i++) {
+					states[i] = random.nextBoolean();
+				}
+				Generation current = new Generation(states);
+				HashLifeEngine engine = new HashLifeEngine(rule, 100_000);
+
+				// Every step count up to 300 covers every combination of small jumps.
+				Generation expected = current;
+				for (int step = 0; step <= 300; step++) {
+					assertEquals(expected.getStates('0', '1'), engine.evolve(current, step).getStates('0', '1'));
+					expected = rule.evolve(expected);
+				}
+			}
+		}
+	}
+
+	@Test
+	void testHugeStepCounts() throws RuleNumException {
+		Rule rule = new ElementaryRule(110);
+		Generation initial = new Generation("00000000000000000000100000000000000000000", '1');
+
+		// Find where the circular row becomes periodic by brute force.
+		HashMap<String, Integer> seen = new HashMap<>();
+		ArrayList<String> rows = new ArrayList<>();
+		Generation gen = initial;
+		while (!seen.containsKey(gen.getStates('0', '1'))) {
+			seen.put(gen.getStates('0', '1'), rows.size());
+			rows.add(gen.getStates('0', '1'));
+			gen = rule.evolve(gen);
+		}
+		int transientLength = seen.get(gen.getStates('0', '1'));
+		int period = rows.size() - transientLength;
+
+		Automaton automaton = new ElementaryAutomaton(110, initial);
+		automaton.setHashLife(1_000_000);
+		for (long step : new long[] {1_000_000_000L, 123_456_789_012L, Long.MAX_VALUE}) {
+			String expected = rows.get((int) (transientLength + (step - transientLength) % period));
+			assertEquals(expected, automaton.getGeneration(step).getStates('0', '1'));
+		}
+		assertEquals(0, automaton.getTotalSteps());
+	}
+
+	@Test
+	void testNodeCacheIsBounded() throws RuleNumException {
+		HashLifeEngine engine = new HashLifeEngine(new TotalisticRule(22), 50);
+		Generation initial = new Generation("00000000000000100000000000000", '1');
+		Generation expected = engine.evolve(initial, 1000);
+
+		for (int i = 0; i < 5; i++) {
+			assertEquals(expected.getStates('0', '1'), engine.evolve(initial, 1000).getStates('0', '1'));
+		}
+		assertTrue(engine.getNodeCount() > 0);
+	}
+}
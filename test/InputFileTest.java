@@ -0,0 +1,62 @@
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.channels.Channels;
+import java.nio.charset.Charset;
+
+import org.junit.jupiter.api.Test;
+
+class InputFileTest {
+
+	@Test
+	void testChunks() throws IOException {
+		StringBuilder row = new StringBuilder();
+		for (int i = 0; i < 1000; i++) {
+			row.append(i % 3 == 0 || i % 7 == 0 ? 'O' : '.');
+		}
+
+		// A row far wider than a chunk, with Windows line endings and no newline at the end.
+		InputFile input = read("30\r\n. O\r\n" + row, 16);
+		assertEquals(30, input.getRuleNum());
+		assertEquals('.', input.getFalseSymbol());
+		assertEquals('O', input.getTrueSymbol());
+		assertEquals(new Generation(row.toString(), 'O'), input.getInitial());
+		// The words grew by doubling since the length was unknown, but the generation only keeps what it needs.
+		assertEquals(Generation.wordCount(1000), input.getInitial().words().length);
+
+		// Anything after the third line is not read.
+		input = read(" 22 \n-  #\n-#--#\nignored\n", 4);
+		assertEquals(22, input.getRuleNum());
+		assertEquals(new Generation(false, true, false, false, true), input.getInitial());
+	}
+
+	@Test
+	void testAutomaton() {
+		Automaton eca = new ElementaryAutomaton("rule22-61cells-input.txt");
+		assertEquals(22, eca.getRuleNum());
+		assertEquals(61, eca.getGeneration(0).size());
+		assertEquals(1, eca.getGeneration(0).countSetCells());
+		assertEquals(".".repeat(30) + "O" + ".".repeat(30), eca.toString());
+	}
+
+	@Test
+	void testErrors() {
+		assertThrows(IllegalArgumentException.class, () -> read("", 16));
+		assertThrows(IllegalArgumentException.class, () -> read("thirty\n0 1\n0100", 16));
+		assertThrows(IllegalArgumentException.class, () -> read("30\n01\n0100", 16));
+		assertThrows(IllegalArgumentException.class, () -> read("30\n0 1\n", 16));
+		assertThrows(IllegalArgumentException.class, () -> read("30\n0 1", 16));
+		// Cells that are neither symbol are not silently read as false.
+		assertThrows(IllegalArgumentException.class, () -> read("30\n0 1\n0120", 16));
+
+		assertThrows(UncheckedIOException.class, () -> new ElementaryAutomaton("missing-input.txt"));
+	}
+
+	private static InputFile read(String contents, int chunkSize) throws IOException {
+		byte[] bytes = contents.getBytes(Charset.defaultCharset());
+		return InputFile.read(Channels.newChannel(new ByteArrayInputStream(bytes)), 0, chunkSize, "input");
+	}
+}
@@ -0,0 +1,61 @@
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.fail;
+
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+class LaneEnsembleTest {
+
+	@Test
+	void testEnsemble() throws RuleNumException {
+		Random random = new Random(61);
+		Rule rule = new ElementaryRule(22);
+
+		// More automata than fit in one word of lanes.
+		Generation[] initials = new Generation[70];
+		for (int i = 0; i < initials.length; i++) {
+			boolean[] states = new boolean[61];
+			for (int j = 0; j < states.length; j++) {
+				states[j] = random.nextInt(4) == 0;
+			}
+			initials[i] = new Generation(states);
+		}
+
+		LaneEnsemble ensemble = new LaneEnsemble(rule, initials);
+		ensemble.evolve(15);
+		assertEquals(15, ensemble.getTotalSteps());
+
+		for (int lane = 0; lane < initials.length; lane++) {
+			Automaton automaton = new ElementaryAutomaton(22, initials[lane]);
+			for (int step = 0; step <= 15; step++) {
+				assertEquals(automaton.getGeneration(step).getStates('0', '1'),
+						ensemble.getGeneration(lane, step).getStates('0', '1'));
+				assertEquals(automaton.getGeneration(step).countSetCells(), ensemble.getPopulation(lane, step));
+			}
+		}
+	}
+
+	@Test
+	void testEvolveAutomata() throws RuleNumException {
+		Automaton first = new TotalisticAutomaton(22, new Generation("00000000000000100000000000000", '1'));
+		Automaton second = new TotalisticAutomaton(22, new Generation("00000100000000000000001100000", '1'));
+		Automaton expected = new TotalisticAutomaton(22, new Generation("00000100000000000000001100000", '1'));
+		first.evolve(2);
+
+		LaneEnsemble.evolve(5, first, second);
+		expected.evolve(5);
+
+		assertEquals(7, first.getTotalSteps());
+		assertEquals(5, second.getTotalSteps());
+		assertEquals("OOO..OOOOO.OOO.OOO.OOOOO..OOO", first.getGeneration(7).getStates('.', 'O'));
+		assertEquals(expected.toString(), second.toString());
+
+		try {
+			LaneEnsemble.evolve(1, first, new TotalisticAutomaton(23, new Generation("0", '1')));
+			fail();
+		} catch (IllegalArgumentException e) {
+			assertEquals("every automaton must have the same rule", e.getMessage());
+		}
+	}
+}
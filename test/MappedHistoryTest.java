@@ -0,0 +1,85 @@
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+
+import org.junit.jupiter.api.Test;
+
+class MappedHistoryTest {
+
+	@Test
+	void testRandomAccess() throws RuleNumException, IOException {
+		String filename = "testRandomAccess.wta";
+		Generation initial = new Generation("0".repeat(100) + "1" + "0".repeat(99), '1');
+		Automaton reference = new ElementaryAutomaton(30, initial);
+		reference.setCycleDetection(false);
+		reference.evolve(300);
+
+		Automaton eca = new ElementaryAutomaton(30, initial);
+		MappedHistory history = GenerationHistory.mapped(filename);
+		eca.setHistory(history);
+		eca.evolve(300);
+
+		// The file holds a 64 byte header and 4 words per step.
+		assertEquals(64 + 301 * 32, new File(filename).length());
+		for (int step : new int[] {0, 299, 1, 150, 300, 7}) {
+			assertEquals(reference.getGeneration(step), eca.getGeneration(step));
+		}
+		assertEquals(reference.toString(), eca.toString());
+		history.close();
+		new File(filename).delete();
+	}
+
+	@Test
+	void testReopen() throws RuleNumException, IOException {
+		String filename = "testReopen.wta";
+		Generation initial = new Generation("00000000000000000000100000000000000000000", '1');
+		Automaton tca = new TotalisticAutomaton(22, initial);
+		tca.setBoundary(Boundary.FIXED_FALSE);
+		MappedHistory history = GenerationHistory.mapped(filename);
+		tca.setHistory(history);
+		tca.evolve(20);
+		history.close();
+
+		MappedHistory reopened = MappedHistory.open(filename);
+		assertEquals("TotalisticAutomaton", reopened.getType());
+		assertEquals(22, reopened.getRuleNum());
+		assertEquals(Boundary.FIXED_FALSE, reopened.getBoundary());
+		assertEquals(41, reopened.getWidth());
+
+		// The automaton continues from the last row and appends the new steps to the file.
+		Automaton restored = Automaton.fromHistory(reopened);
+		assertTrue(restored instanceof TotalisticAutomaton);
+		assertEquals(20, restored.getTotalSteps());
+		restored.evolve(10);
+
+		Automaton reference = new TotalisticAutomaton(22, initial);
+		reference.setBoundary(Boundary.FIXED_FALSE);
+		reference.evolve(30);
+		assertEquals(reference.toString(), restored.toString());
+		reopened.close();
+		assertEquals(64 + 31 * 8, new File(filename).length());
+		new File(filename).delete();
+	}
+
+	@Test
+	void testErrors() throws RuleNumException, IOException {
+		String filename = "testErrors.wta";
+		Files.writeString(new File(filename).toPath(), "0000000000");
+		assertThrows(IllegalArgumentException.class, () -> MappedHistory.open(filename));
+		new File(filename).delete();
+		assertThrows(UncheckedIOException.class, () -> MappedHistory.open(filename));
+
+		// The generations of an unbounded automaton change their width.
+		Automaton eca = new ElementaryAutomaton(90, new Generation("0010", '1'));
+		eca.setUnbounded(true);
+		MappedHistory history = GenerationHistory.mapped(filename);
+		assertThrows(IllegalArgumentException.class, () -> eca.setHistory(history));
+		history.close();
+		new File(filename).delete();
+	}
+}
@@ -0,0 +1,63 @@
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.fail;
+
+import org.junit.jupiter.api.Test;
+
+class RuleSweepTest {
+
+	@Test
+	void testElementarySweep() throws RuleNumException {
+		Generation initial = new Generation("00000000000000000000100000000000000000000110100000000000000000000001", '1');
+		RuleSweep sweep = RuleSweep.elementary(true, initial);
+		sweep.evolve(20);
+		assertEquals(20, sweep.getTotalSteps());
+
+		// Every rule matches the automaton of the same rule.
+		for (int ruleNum = 0; ruleNum < 256; ruleNum++) {
+			Automaton automaton = new ElementaryAutomaton(ruleNum, initial);
+			for (int step = 0; step <= 20; step++) {
+				Generation expected = automaton.getGeneration(step);
+				assertEquals(expected.getStates('0', '1'),
+						sweep.getGeneration(ruleNum, step).getStates('0', '1'));
+				assertEquals(expected.countSetCells(), sweep.getPopulation(ruleNum, step));
+			}
+			assertEquals(automaton.getGeneration(20).getStates('0', '1'),
+					sweep.getGeneration(ruleNum).getStates('0', '1'));
+		}
+	}
+
+	@Test
+	void testTotalisticSweep() throws RuleNumException {
+		Generation initial = new Generation("00000000000000100000000000000", '1');
+		RuleSweep sweep = RuleSweep.totalistic(false, initial);
+		sweep.evolve(15);
+
+		for (int ruleNum = 0; ruleNum < 64; ruleNum++) {
+			Automaton automaton = new TotalisticAutomaton(ruleNum, initial);
+			assertEquals(automaton.getGeneration(15).getStates('0', '1'),
+					sweep.getGeneration(ruleNum).getStates('0', '1'));
+			assertEquals(automaton.getGeneration(7).countSetCells(), sweep.getPopulation(ruleNum, 7));
+		}
+
+		try {
+			sweep.getGeneration(0, 3);
+			fail();
+		} catch (IllegalStateException e) {
+			assertEquals("the history of the sweep is not kept", e.getMessage());
+		}
+	}
+
+	@Test
+	void testDifferentInitials() throws RuleNumException {
+		Rule[] rules = {new ElementaryRule(30), new ElementaryRule(110)};
+		Generation first = new Generation("0001000", '1');
+		Generation second = new Generation("0110010", '1');
+		RuleSweep sweep = new RuleSweep(rules, false, first, second);
+		sweep.evolve(4);
+
+		assertEquals(rules[0].evolve(rules[0].evolve(rules[0].evolve(rules[0].evolve(first)))).getStates('0', '1'),
+				sweep.getGeneration(0).getStates('0', '1'));
+		assertEquals(rules[1].evolve(rules[1].evolve(rules[1].evolve(rules[1].evolve(second)))).getStates('0', '1'),
+				sweep.getGeneration(1).getStates('0', '1'));
+	}
+}
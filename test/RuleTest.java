@@ -1,9 +1,13 @@
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.junit.jupiter.api.Assertions.fail;
 
 import java.lang.reflect.Method;
 import java.lang.reflect.Modifier;
+import java.util.Random;
 
 import org.junit.jupiter.api.Test;
 
@@ -23,10 +27,11 @@ class RuleTest {
 		}
 
 		try {
+			// Every kernel reads the same window of cells, so the neighborhood cannot be overridden.
 			Method method = Rule.class.getDeclaredMethod("getNeighborhood",
 					int.class, Generation.class);
 			int modifiers = method.getModifiers();
-			assertTrue(Modifier.isAbstract(modifiers));
+			assertTrue(Modifier.isFinal(modifiers));
 		} catch (NoSuchMethodException e) {
 			fail();
 		}
@@ -56,6 +61,103 @@ class RuleTest {
 		assertEquals("LLLLLLLLLLLL", next.getStates('L', 'R'));
 	}
 
+	@Test
+	void testNeighborhoodCodes() {
+		assertEquals(6, Rule.encode(new boolean[] {true, true, false}));
+		assertEquals(17, Rule.encode(new boolean[] {true, false, false, false, true}));
+		assertArrayEquals(new boolean[] {false, true, true},
+				Rule.decode(3, 3));
+
+		// The default table is compiled from evolve(boolean[]).
+		Rule rule = new MockRule();
+		assertEquals(1, rule.getRadius());
+		for (int code = 0; code < 8; code++) {
+			assertFalse(rule.evolve(code));
+		}
+	}
+
+	@Test
+	void testEvolveGenerationWithRadius() {
+		Random random = new Random(2334);
+		Rule rule = new MajorityRule();
+
+		// Compare the rolling neighborhood code with the cell by cell neighborhoods.
+		for (int size : new int[] {1, 2, 3, 5, 63, 64, 65, 130}) {
+			boolean[] states = new boolean[size];
+			for (int i = 0; i < size; i++) {
+				states[i] = random.nextBoolean();
+			}
+			Generation current = new Generation(states);
+
+			boolean[] expected = new boolean[size];
+			for (int i = 0; i < size; i++) {
+				expected[i] = rule.evolve(rule.getNeighborhood(i, current));
+			}
+			assertArrayEquals(expected, rule.evolve(current).getStates());
+		}
+	}
+
+	@Test
+	void testEvolveActiveRegion() throws RuleNumException {
+		Random random = new Random(17);
+		Rule[] rules = {new ElementaryRule(90), new ElementaryRule(110), new TotalisticRule(22), new MajorityRule()};
+
+		for (Rule rule : rules) {
+			for (int[] cells : new int[][] {{128}, {200, 330}, {127, 191, 640}, {100}, {1000}, {0}, {1100}}) {
+				boolean[] states = new boolean[1150];
+				for (int cell : cells) {
+					states[cell] = true;
+					states[cell + 3 < states.length ? cell + 3 : 0] = random.nextBoolean();
+				}
+				Generation gen = new Generation(states);
+
+				// Compare to evolving every cell from its neighborhood.
+				for (int step = 0; step < 70; step++) {
+					boolean[] expected = new boolean[gen.size()];
+					for (int i = 0; i < expected.length; i++) {
+						expected[i] = rule.evolve(rule.getNeighborhood(i, gen));
+					}
+					gen = rule.evolve(gen);
+					assertArrayEquals(expected, gen.getStates());
+				}
+			}
+		}
+
+		// Rows whose true cells are within a word of either end, and rules that turn false cells true, are
+		// evolved whole.
+		Generation edge = new Generation("1" + "0".repeat(500), '1');
+		assertNull(new ElementaryRule(90).evolveActive(edge, false));
+		assertNull(new ElementaryRule(1).evolveActive(new Generation("0".repeat(250) + "1" + "0".repeat(250), '1'), false));
+		assertEquals(new Generation("0".repeat(500), '1'), new ElementaryRule(90).evolveActive(new Generation("0".repeat(500), '1'), false));
+
+	}
+
+	@Test
+	void testActiveSpan() throws RuleNumException {
+		// A single seed in a large row only ever holds the words around its true cells.
+		int size = 1 << 20;
+		boolean[] states = new boolean[size];
+		states[size / 2] = true;
+		Rule rule = new ElementaryRule(30);
+		Generation gen = new Generation(states);
+		for (int step = 1; step <= 200; step++) {
+			gen = rule.evolve(gen);
+			assertEquals((size / 2 - step) >>> 6, gen.firstActiveWord());
+			assertEquals((size / 2 + step) >>> 6, gen.lastActiveWord());
+		}
+
+		// The span behaves like the unpacked words.
+		Generation unpacked = new Generation(gen.getStates());
+		assertEquals(unpacked, gen);
+		assertEquals(gen, unpacked);
+		assertEquals(unpacked.hashCode(), gen.hashCode());
+		assertEquals(unpacked.countToggles(), gen.countToggles());
+		assertArrayEquals(unpacked.toggles(), gen.toggles());
+		assertEquals(unpacked.getState(size / 2 - 200), gen.getState(size / 2 - 200));
+		assertArrayEquals(unpacked.copyWords(8000, 8300), gen.copyWords(8000, 8300));
+		assertEquals(rule.evolve(unpacked), rule.evolve(gen));
+	}
+
 	// Extend Rule with a concrete class to test the non-abstract methods.
 	private static class MockRule extends Rule {
 
@@ -69,9 +171,31 @@ class RuleTest {
 		}
 
 		@Override
-		public boolean[] getNeighborhood(int idx, Generation gen) {
+		public String getRuleTable(char falseSymbol, char trueSymbol) {
 			return null;
 		}
+	}
+
+	// A radius 2 rule that only implements the abstract methods and getRadius.
+	private static class MajorityRule extends Rule {
+
+		public MajorityRule() {
+			super(0);
+		}
+
+		@Override
+		public boolean evolve(boolean[] neighborhood) {
+			int total = 0;
+			for (boolean b : neighborhood) {
+				if (b) total++;
+			}
+			return total > 2;
+		}
+
+		@Override
+		public int getRadius() {
+			return 2;
+		}
 
 		@Override
 		public String getRuleTable(char falseSymbol, char trueSymbol) {
@@ -0,0 +1,78 @@
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+class RunKernelTest {
+
+	@Test
+	void testMatchesWords() throws RuleNumException {
+		Random random = new Random(16);
+		for (int ruleNum = 0; ruleNum < 256; ruleNum++) {
+			Rule rule = new ElementaryRule(ruleNum);
+			checkRule(rule, random);
+		}
+		for (int ruleNum = 0; ruleNum < 64; ruleNum++) {
+			Rule rule = new TotalisticRule(ruleNum);
+			checkRule(rule, random);
+		}
+	}
+
+	// Sparse rows with true cells at the ends, so that the ranges wrap around.
+	private void checkRule(Rule rule, Random random) {
+		for (String pattern : new String[] {"1", "11", "101", "10011"}) {
+			for (int shift : new int[] {0, 1, 1999, 1000}) {
+				boolean[] states = new boolean[2000];
+				for (int i = 0; i < pattern.length(); i++) {
+					states[(shift + i) % states.length] = pattern.charAt(i) == '1';
+				}
+				states[random.nextInt(states.length)] ^= random.nextBoolean();
+				Generation words = new Generation(states);
+				Generation runs = words.toRunLength();
+
+				for (int step = 0; step < 20; step++) {
+					assertEquals(words, runs, "rule " + rule.getRuleNum() + " step " + step);
+					words = rule.evolve(words);
+					runs = RunKernel.evolve(rule, runs);
+				}
+			}
+		}
+	}
+
+	@Test
+	void testRepresentations() {
+		Generation words = new Generation("1100000000000000000000000000000000000000000000000000000000000000001110", '1');
+		Generation runs = words.toRunLength();
+
+		assertTrue(runs.isRunLength());
+		assertFalse(words.isRunLength());
+		assertEquals(4, words.countToggles());
+		assertEquals(words.hashCode(), runs.hashCode());
+		assertEquals(words, runs);
+		for (int i = 0; i < words.size(); i++) {
+			assertEquals(words.getState(i), Generation.fromToggles(new int[] {0, 2, 66, 69}, 70).getState(i));
+		}
+		assertEquals(words.getStates('0', '1'), Generation.fromToggles(new int[] {0, 2, 66, 69}, 70).getStates('0', '1'));
+		assertEquals(words, runs.toWords());
+		assertEquals(3, Generation.fromToggles(new int[] {1, 4}, 5).countSetCells());
+	}
+
+	@Test
+	void testAutomatonSwitchesRepresentation() throws RuleNumException {
+		boolean[] states = new boolean[1 << 20];
+		states[states.length / 2] = true;
+		Automaton runs = new ElementaryAutomaton(90, new Generation(states));
+		Automaton words = new ElementaryAutomaton(90, new Generation(states));
+		runs.setHistory(GenerationHistory.keepLast(2));
+		words.setHistory(GenerationHistory.keepLast(2));
+		words.setRunLength(false);
+
+		runs.evolve(1000);
+		words.evolve(1000);
+		assertTrue(runs.getGeneration(1000).isRunLength());
+		assertEquals(words.getGeneration(1000), runs.getGeneration(1000));
+	}
+}
@@ -0,0 +1,94 @@
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+import org.junit.jupiter.api.Test;
+
+class TextEncoderTest {
+
+	@Test
+	void testEncodeCells() {
+		Random random = new Random(7);
+		boolean[] states = new boolean[203];
+		for (int i = 0; i < states.length; i++) {
+			states[i] = random.nextBoolean();
+		}
+		Generation gen = new Generation(states);
+		TextEncoder encoder = TextEncoder.of('.', '#');
+
+		// Every range starting at a multiple of 8, including ones that end inside a byte of cells.
+		for (int from = 0; from < states.length; from += 8) {
+			for (int to = from; to <= states.length; to += 5) {
+				byte[] dest = new byte[to - from + 2];
+				encoder.encodeCells(gen.words(), from, to, dest, 1);
+				byte[] expected = new byte[to - from + 2];
+				for (int i = from; i < to; i++) {
+					expected[1 + i - from] = (byte) (states[i] ? '#' : '.');
+				}
+				assertArrayEquals(expected, dest);
+			}
+		}
+	}
+
+	@Test
+	void testEncodeRows() {
+		// Enough rows to be split among several tasks.
+		Random random = new Random(11);
+		Generation[] rows = new Generation[400];
+		StringBuilder expected = new StringBuilder();
+		for (int r = 0; r < rows.length; r++) {
+			boolean[] states = new boolean[10001];
+			for (int i = 0; i < states.length; i++) {
+				states[i] = random.nextInt(3) == 0;
+			}
+			rows[r] = new Generation(states);
+			if (r > 1) {
+				expected.append("\r\n");
+			}
+			if (r > 0) {
+				expected.append(rows[r].getStates('-', '+'));
+			}
+		}
+
+		TextEncoder encoder = TextEncoder.of('-', '+');
+		byte[] text = encoder.encodeRows(rows, 1, rows.length, 0, 0, new byte[] {'\r', '\n'}, false,
+				ForkJoinPool.commonPool());
+		assertEquals(expected.toString(), new String(text, StandardCharsets.ISO_8859_1));
+
+		// A leading separator for rows that follow earlier ones.
+		text = encoder.encodeRows(rows, 1, 3, 0, 0, new byte[] {'\n'}, true, ForkJoinPool.commonPool());
+		assertEquals("\n" + rows[1].getStates('-', '+') + "\n" + rows[2].getStates('-', '+'),
+				new String(text, StandardCharsets.ISO_8859_1));
+	}
+
+	@Test
+	void testSymbols() {
+		Generation gen = new Generation("0110100111", '1');
+		assertEquals("\u00b7\u00e9\u00e9\u00b7\u00e9\u00b7\u00b7\u00e9\u00e9\u00e9",
+				gen.getStates('\u00b7', '\u00e9'));
+
+		// Symbols outside a single byte use the character path.
+		assertNull(TextEncoder.of('\u2591', '\u2588'));
+		assertEquals("\u2591\u2588\u2588\u2591\u2588\u2591\u2591\u2588\u2588\u2588",
+				gen.getStates('\u2591', '\u2588'));
+	}
+
+	@Test
+	void testSaveBatches() throws RuleNumException, IOException {
+		String filename = "testSaveBatches.txt";
+		Automaton eca = new ElementaryAutomaton(30, new Generation("0".repeat(1500) + "1" + "0".repeat(1499), '1'));
+		eca.setCycleDetection(false);
+		eca.evolve(1200);
+		eca.saveEvolution(filename);
+		assertEquals(eca.toString(), Files.readString(new File(filename).toPath(), Charset.defaultCharset()));
+		new File(filename).delete();
+	}
+}
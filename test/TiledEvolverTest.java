@@ -0,0 +1,77 @@
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.fail;
+
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+import org.junit.jupiter.api.Test;
+
+class TiledEvolverTest {
+
+	@Test
+	void testMatchesSequential() throws RuleNumException {
+		Random random = new Random(64);
+		ForkJoinPool pool = new ForkJoinPool(4);
+		Rule[] rules = {new ElementaryRule(30), new TotalisticRule(22)};
+
+		// One word per tile, so every tile borrows its halo cells from its neighbors.
+		TiledEvolver evolver = new TiledEvolver(pool, 64, 0);
+		for (int size : new int[] {1, 65, 640, 1000}) {
+			boolean[] states = new boolean[size];
+			for (int i = 0; i < size; i++) {
+				states[i] = random.nextBoolean();
+			}
+			Generation current = new Generation(states);
+
+			for (Rule rule : rules) {
+				assertEquals(rule.evolve(current).getStates('0', '1'),
+						evolver.evolve(rule, current, false).getStates('0', '1'));
+				assertEquals(rule.evolve(current).getStates('0', '1'),
+						evolver.evolve(rule, current, true).getStates('0', '1'));
+			}
+		}
+		pool.shutdown();
+
+		// A single true cell in a wide row only evolves the words around it, without any tiles, so even a pool
+		// that no longer takes tasks evolves it.
+		boolean[] states = new boolean[1 << 16];
+		states[1 << 15] = true;
+		Generation sparse = new Generation(states);
+		for (Rule rule : rules) {
+			assertEquals(rule.evolve(sparse), evolver.evolve(rule, sparse, false));
+			assertEquals(rule.evolve(sparse), evolver.evolve(rule, sparse, true));
+		}
+	}
+
+	@Test
+	void testAutomaton() throws RuleNumException {
+		ForkJoinPool pool = new ForkJoinPool(2);
+		Automaton sequential = new TotalisticAutomaton(22,
+				new Generation("00000000000000100000000000000", '1'));
+		Automaton parallel = new TotalisticAutomaton(22,
+				new Generation("00000000000000100000000000000", '1'));
+		parallel.setParallel(pool, 1, 0);
+
+		sequential.evolve(7);
+		parallel.evolve(7);
+		assertEquals(sequential.toString(), parallel.toString());
+		pool.shutdown();
+	}
+
+	@Test
+	void testInvalidArguments() {
+		try {
+			new TiledEvolver(null, 64, 0);
+			fail();
+		} catch (IllegalArgumentException e) {
+			assertEquals("pool cannot be null", e.getMessage());
+		}
+
+		try {
+			new TiledEvolver(ForkJoinPool.commonPool(), 0, 0);
+			fail();
+		} catch (IllegalArgumentException e) {
+			assertEquals("tileSize must be positive", e.getMessage());
+		}
+	}
+}
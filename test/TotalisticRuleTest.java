@@ -4,6 +4,8 @@ import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.junit.jupiter.api.Assertions.fail;
 
+import java.util.Random;
+
 import org.junit.jupiter.api.Test;
 
 class TotalisticRuleTest {
@@ -142,4 +144,41 @@ class TotalisticRuleTest {
 		Generation next = rule.evolve(current);
 		assertEquals("11011111111011111000100000111010", next.getStates('0', '1'));
 	}
+
+	@Test
+	void testEvolveWordBoundaries() throws RuleNumException {
+		Random random = new Random(63);
+
+		// Compare the packed kernel with the cell by cell neighborhoods of every rule.
+		for (int size : new int[] {1, 2, 3, 4, 63, 64, 65, 66, 200}) {
+			boolean[] states = new boolean[size];
+			for (int i = 0; i < size; i++) {
+				states[i] = random.nextBoolean();
+			}
+			Generation current = new Generation(states);
+
+			for (int ruleNum = 0; ruleNum < 64; ruleNum++) {
+				Rule rule = new TotalisticRule(ruleNum);
+				boolean[] expected = new boolean[size];
+				for (int i = 0; i < size; i++) {
+					expected[i] = rule.evolve(rule.getNeighborhood(i, current));
+				}
+				assertArrayEquals(expected, rule.evolve(current).getStates());
+			}
+		}
+	}
+
+	@Test
+	void testEvolveCode() throws RuleNumException {
+		Rule rule = new TotalisticRule(22);
+		assertEquals(2, rule.getRadius());
+
+		// Codes with the same total have the same next state.
+		assertFalse(rule.evolve(0b11111));
+		assertTrue(rule.evolve(0b11011));
+		assertFalse(rule.evolve(0b10101));
+		assertTrue(rule.evolve(0b10001));
+		assertTrue(rule.evolve(0b00100));
+		assertFalse(rule.evolve(0b00000));
+	}
 }
@@ -0,0 +1,42 @@
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+class VectorEngineTest {
+
+	@Test
+	void testMatchesScalarKernels() throws RuleNumException {
+		Random random = new Random(110);
+		Rule[] rules = {new ElementaryRule(110), new TotalisticRule(22)};
+
+		// Widths around whole vectors of words, vectorized or not the results must agree.
+		for (int size : new int[] {5, 64, 500, 1000, 1031}) {
+			boolean[] states = new boolean[size];
+			for (int i = 0; i < size; i++) {
+				states[i] = random.nextBoolean();
+			}
+			Generation current = new Generation(states);
+
+			for (Rule rule : rules) {
+				assertEquals(rule.evolve(current).getStates('0', '1'),
+						VectorEngine.evolve(rule, current).getStates('0', '1'));
+			}
+		}
+	}
+
+	@Test
+	void testAutomaton() throws RuleNumException {
+		Automaton automaton = new ElementaryAutomaton(22,
+				new Generation("000000010000000", '1'));
+		automaton.setVectorized(true);
+		automaton.evolve(3);
+		String evolution =
+				"000000010000000" + System.lineSeparator() +
+				"000000111000000" + System.lineSeparator() +
+				"000001000100000" + System.lineSeparator() +
+				"000011101110000";
+		assertEquals(evolution, automaton.toString());
+	}
+}
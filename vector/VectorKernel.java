@@ -0,0 +1,108 @@
+import jdk.incubator.vector.LongVector;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorSpecies;
+
+/**
+ * The Vector API kernel loaded by VectorEngine. It runs the same bitwise logic as the scalar kernels of
+ * ElementaryRule and TotalisticRule, but on SPECIES.length() words per iteration, and leaves the words that do
+ * not fill a whole vector to the scalar kernels.
+ * Compile and run with {@code --add-modules jdk.incubator.vector}.
+ *
+ * @author Cole Hoffman
+ * @version 0.1
+ */
+class VectorKernel implements VectorEngine.Kernel {
+    //the widest vector shape the hardware supports
+    private static final VectorSpecies<Long> SPECIES = LongVector.SPECIES_PREFERRED;
+
+    @Override
+    public boolean supports(Rule rule) {
+        return rule instanceof ElementaryRule || rule instanceof TotalisticRule;
+    }
+
+    @Override
+    public void evolveWords(Rule rule, long[] padded, long[] next, int from, int to) {
+        int end = from + SPECIES.loopBound(to - from);
+
+        if (rule instanceof ElementaryRule) {
+            evolveElementary(((ElementaryRule) rule).minterms(), padded, next, from, end);
+        } else {
+            evolveTotalistic(((TotalisticRule) rule).totals(), padded, next, from, end);
+        }
+
+        //the remaining words do not fill a vector
+        rule.evolveWords(padded, next, end, to);
+    }
+
+    private static void evolveElementary(long[] minterms, long[] padded, long[] next, int from, int to) {
+        //the masks are kept in locals, vectors stored in an array would not stay in registers
+        LongVector m0 = LongVector.broadcast(SPECIES, minterms[0]);
+        LongVector m1 = LongVector.broadcast(SPECIES, minterms[1]);
+        LongVector m2 = LongVector.broadcast(SPECIES, minterms[2]);
+        LongVector m3 = LongVector.broadcast(SPECIES, minterms[3]);
+        LongVector m4 = LongVector.broadcast(SPECIES, minterms[4]);
+        LongVector m5 = LongVector.broadcast(SPECIES, minterms[5]);
+        LongVector m6 = LongVector.broadcast(SPECIES, minterms[6]);
+        LongVector m7 = LongVector.broadcast(SPECIES, minterms[7]);
+
+        for (int k = from; k < to; k += SPECIES.length()) {
+            LongVector before = LongVector.fromArray(SPECIES, padded, k);
+            LongVector center = LongVector.fromArray(SPECIES, padded, k + 1);
+            LongVector after = LongVector.fromArray(SPECIES, padded, k + 2);
+            LongVector left = shiftLeft(center, before, 1);
+            LongVector right = shiftRight(center, after, 1);
+
+            LongVector c11 = mux(right, m7, m6);
+            LongVector c10 = mux(right, m5, m4);
+            LongVector c01 = mux(right, m3, m2);
+            LongVector c00 = mux(right, m1, m0);
+            mux(left, mux(center, c11, c10), mux(center, c01, c00)).intoArray(next, k);
+        }
+    }
+
+    private static void evolveTotalistic(long[] totals, long[] padded, long[] next, int from, int to) {
+        LongVector t0 = LongVector.broadcast(SPECIES, totals[0]);
+        LongVector t1 = LongVector.broadcast(SPECIES, totals[1]);
+        LongVector t2 = LongVector.broadcast(SPECIES, totals[2]);
+        LongVector t3 = LongVector.broadcast(SPECIES, totals[3]);
+        LongVector t4 = LongVector.broadcast(SPECIES, totals[4]);
+        LongVector t5 = LongVector.broadcast(SPECIES, totals[5]);
+
+        for (int k = from; k < to; k += SPECIES.length()) {
+            LongVector before = LongVector.fromArray(SPECIES, padded, k);
+            LongVector center = LongVector.fromArray(SPECIES, padded, k + 1);
+            LongVector after = LongVector.fromArray(SPECIES, padded, k + 2);
+            LongVector left2 = shiftLeft(center, before, 2);
+            LongVector left1 = shiftLeft(center, before, 1);
+            LongVector right1 = shiftRight(center, after, 1);
+            LongVector right2 = shiftRight(center, after, 2);
+
+            LongVector partial = left2.lanewise(VectorOperators.XOR, left1).lanewise(VectorOperators.XOR, center);
+            LongVector carry1 = left2.and(left1).or(center.and(left2.lanewise(VectorOperators.XOR, left1)));
+            LongVector ones = partial.lanewise(VectorOperators.XOR, right1).lanewise(VectorOperators.XOR, right2);
+            LongVector carry2 = right1.and(right2).or(partial.and(right1.lanewise(VectorOperators.XOR, right2)));
+            LongVector twos = carry1.lanewise(VectorOperators.XOR, carry2);
+            LongVector fours = carry1.and(carry2);
+
+            mux(fours, mux(ones, t5, t4),
+                    mux(twos, mux(ones, t3, t2), mux(ones, t1, t0))).intoArray(next, k);
+        }
+    }
+
+    //bit i of the result holds bit i - distance of the cells, continuing into the previous words
+    private static LongVector shiftLeft(LongVector center, LongVector before, int distance) {
+        return center.lanewise(VectorOperators.LSHL, distance)
+                .or(before.lanewise(VectorOperators.LSHR, 64 - distance));
+    }
+
+    //bit i of the result holds bit i + distance of the cells, continuing into the next words
+    private static LongVector shiftRight(LongVector center, LongVector after, int distance) {
+        return center.lanewise(VectorOperators.LSHR, distance)
+                .or(after.lanewise(VectorOperators.LSHL, 64 - distance));
+    }
+
+    private static LongVector mux(LongVector select, LongVector ifTrue, LongVector ifFalse) {
+        return ifFalse.lanewise(VectorOperators.XOR,
+                select.and(ifTrue.lanewise(VectorOperators.XOR, ifFalse)));
+    }
+}